@@ -0,0 +1,16 @@
+//usr/bin/env jbang "$0" "$@" ; exit $?
+
+//DEPS io.quarkus.qe:flaky-run-reporter:0.1.8
+
+import io.quarkus.qe.reporter.flakyrun.dashboard.FlakyRunDashboardGenerator;
+
+public class FlakyTestRunDashboard {
+    public static void main(String... args) {
+        try {
+            new FlakyRunDashboardGenerator(args).generate();
+            System.exit(0);
+        } catch (Exception e) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+//usr/bin/env jbang "$0" "$@" ; exit $?
+
+//DEPS io.quarkus.qe:flaky-run-reporter:0.1.8
+
+import io.quarkus.qe.reporter.flakyrun.summary.FlakyTestListGenerator;
+
+public class FlakyTestRunListGenerator {
+    public static void main(String... args) {
+        try {
+            new FlakyTestListGenerator(args).generate();
+            System.exit(0);
+        } catch (Exception e) {
+            System.exit(1);
+        }
+    }
+}
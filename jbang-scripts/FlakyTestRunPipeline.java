@@ -0,0 +1,16 @@
+//usr/bin/env jbang "$0" "$@" ; exit $?
+
+//DEPS io.quarkus.qe:flaky-run-reporter:0.1.8
+
+import io.quarkus.qe.reporter.flakyrun.pipeline.FlakyRunPipeline;
+
+public class FlakyTestRunPipeline {
+    public static void main(String... args) {
+        try {
+            new FlakyRunPipeline(args).run();
+            System.exit(0);
+        } catch (Exception e) {
+            System.exit(1);
+        }
+    }
+}
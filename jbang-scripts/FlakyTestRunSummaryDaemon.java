@@ -0,0 +1,18 @@
+//usr/bin/env jbang "$0" "$@" ; exit $?
+
+//DEPS io.quarkus.qe:flaky-run-reporter:0.1.8
+
+import io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryDaemon;
+
+public class FlakyTestRunSummaryDaemon {
+    public static void main(String... args) {
+        try {
+            var daemon = new FlakyRunSummaryDaemon(args);
+            daemon.start();
+            daemon.awaitShutdown();
+            System.exit(0);
+        } catch (Exception e) {
+            System.exit(1);
+        }
+    }
+}
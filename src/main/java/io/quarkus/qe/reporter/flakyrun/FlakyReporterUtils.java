@@ -3,6 +3,9 @@ package io.quarkus.qe.reporter.flakyrun;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 
 public final class FlakyReporterUtils {
 
@@ -36,6 +39,15 @@ public final class FlakyReporterUtils {
         return parseStringArgument(argumentKey, argument);
     }
 
+    public static String getOptionalArgument(String argumentKey, String[] arguments) {
+        for (String a : arguments) {
+            if (a != null && isArgument(argumentKey, a)) {
+                return parseStringArgument(argumentKey, a);
+            }
+        }
+        return null;
+    }
+
     public static String readFile(Path overviewPath) {
         try {
             return Files.readString(overviewPath);
@@ -44,6 +56,14 @@ public final class FlakyReporterUtils {
         }
     }
 
+    public static String toDigest(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     public static String[] createCommandArgs(String... args) {
         if (args.length % 2 != 0) {
             throw new IllegalArgumentException("Args must be even");
@@ -1,22 +1,25 @@
 package io.quarkus.qe.reporter.flakyrun.commentator;
 
 import io.quarkus.qe.reporter.flakyrun.FlakyReporterUtils;
+import io.quarkus.qe.reporter.flakyrun.reporter.FlakyRunReport;
 import io.quarkus.qe.reporter.flakyrun.reporter.FlakyTest;
+import io.quarkus.qe.reporter.flakyrun.summary.FlakySummaryIndex;
 
-import java.io.File;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
+import static io.quarkus.qe.reporter.flakyrun.FlakyReporterUtils.getOptionalArgument;
 import static io.quarkus.qe.reporter.flakyrun.FlakyReporterUtils.getRequiredArgument;
 import static io.quarkus.qe.reporter.flakyrun.FlakyReporterUtils.readFile;
-import static io.quarkus.qe.reporter.flakyrun.reporter.FlakyRunReporter.parseFlakyTestsReport;
 
 /**
  * This class is used by a Jbang script to simplify commenting in GitHub PRs when a flake were detected.
@@ -26,6 +29,7 @@ public final class CreateGhPrComment {
     public static final String TEST_BASE_DIR = CreateGhPrComment.class.getSimpleName() + ".test-base-dir";
     public static final String OVERVIEW_FILE_KEY = "overview-file";
     public static final String FLAKY_REPORTS_FILE_PREFIX_KEY = "flaky-reports-file-prefix";
+    public static final String FLAKY_SUMMARY_INDEX_KEY = "flaky-summary-index";
     public static final String GH_REPO_ENV_VAR_NAME = "GH_REPO";
     public static final String WORKFLOW_ID_ENV_VAR_NAME = "WORKFLOW_ID";
     private static final Path CURRENT_DIR = Path.of(".");
@@ -37,14 +41,28 @@ public final class CreateGhPrComment {
     }
 
     public CreateGhPrComment(String[] args, String ghRepo, String workflowId) {
-        if (System.getProperty(TEST_BASE_DIR) != null) {
-            baseDir = Path.of(System.getProperty(TEST_BASE_DIR));
-        } else {
-            baseDir = CURRENT_DIR;
-        }
+        this(args, ghRepo, workflowId, loadFlakyRunReports(args));
+    }
+
+    /**
+     * @param flakyRunReports
+     *            already parsed flaky run reports, see {@link #loadFlakyRunReports(String[])}
+     */
+    public CreateGhPrComment(String[] args, String ghRepo, String workflowId, List<FlakyRunReport> flakyRunReports) {
+        this(args, ghRepo, workflowId, flakyRunReports, readFlakySummaryIndex(args));
+    }
+
+    /**
+     * @param flakySummaryIndex
+     *            index used for the flake history, see {@link #readFlakySummaryIndex(String[])}; null if the history
+     *            should not be shown
+     */
+    public CreateGhPrComment(String[] args, String ghRepo, String workflowId, List<FlakyRunReport> flakyRunReports,
+            FlakySummaryIndex flakySummaryIndex) {
+        baseDir = getBaseDir();
         var jobs = getJobs(args);
         var failureOverview = getFailureOverview(jobs);
-        var flakyTestsReports = getFlakyTestReports(args, jobs);
+        var flakyTestsReports = getFlakyTestReports(flakyRunReports, baseDir, jobs, flakySummaryIndex);
         var prNumber = getPrNumber();
 
         this.comment = """
@@ -60,11 +78,11 @@ public final class CreateGhPrComment {
                 """.formatted(failureOverview, ghRepo, workflowId, prNumber, flakyTestsReports);
     }
 
-    private Set<String> getJobs(String[] args) {
+    private static Set<String> getJobs(String[] args) {
         // expected format:
         // 'PR - Linux - JVM build - Latest Version', 'PR - Linux - Native build - Latest Version',
         // 'PR - Windows - JVM build - Latest Version'
-        var overviewPath = baseDir.resolve(getRequiredArgument(OVERVIEW_FILE_KEY, args));
+        var overviewPath = getBaseDir().resolve(getRequiredArgument(OVERVIEW_FILE_KEY, args));
         if (Files.exists(overviewPath)) {
             var overview = readFile(overviewPath);
             return Arrays.stream(overview.split(",")).map(String::trim).map(job -> {
@@ -82,6 +100,23 @@ public final class CreateGhPrComment {
         throw new IllegalStateException("File '" + overviewPath + "' not found");
     }
 
+    /**
+     * @return flaky summary index from the index argument or null if the argument is not set or the index not found
+     */
+    public static FlakySummaryIndex readFlakySummaryIndex(String[] args) {
+        var indexFile = getOptionalArgument(FLAKY_SUMMARY_INDEX_KEY, args);
+        if (indexFile == null) {
+            return null;
+        }
+        var index = FlakySummaryIndex.read(getBaseDir().resolve(indexFile));
+        if (index == null) {
+            // history is nice to have, comment is still useful without it
+            // the comment itself is printed to the standard output, so it must not contain this message
+            System.err.println("Flaky summary index '" + indexFile + "' not found, flake history won't be shown");
+        }
+        return index;
+    }
+
     private String getPrNumber() {
         var prNumber = FlakyReporterUtils.readFile(baseDir.resolve("pr-number"));
         if (prNumber == null || prNumber.isBlank()) {
@@ -98,49 +133,96 @@ public final class CreateGhPrComment {
         System.out.println(comment);
     }
 
-    private String getFlakyTestReports(String[] args, Set<String> jobs) {
+    /**
+     * @return function resolving job name matching the flaky run report file name, jobs are read from the overview
+     */
+    public static Function<String, String> getJobNameResolver(String[] args) {
+        var jobs = getJobs(args);
+        return reportFileName -> toJobName(reportFileName, jobs);
+    }
+
+    /**
+     * Parses all flaky run reports matching the report file prefix argument, reports are parsed in parallel.
+     */
+    public static List<FlakyRunReport> loadFlakyRunReports(String[] args) {
         var reportFilePrefix = getRequiredArgument(FLAKY_REPORTS_FILE_PREFIX_KEY, args);
-        var listOfDirFiles = baseDir.toFile().listFiles();
-        if (listOfDirFiles == null || listOfDirFiles.length == 0) {
+        var listOfDirFiles = getBaseDir().toFile().listFiles();
+        if (listOfDirFiles == null) {
+            return List.of();
+        }
+        return Arrays.stream(listOfDirFiles).filter(file -> file.getName().startsWith(reportFilePrefix)).parallel()
+                .map(file -> FlakyRunReport.parse(file.toPath())).toList();
+    }
+
+    private static boolean isEmptyDir(Path dir) {
+        var listOfDirFiles = dir.toFile().listFiles();
+        return listOfDirFiles == null || listOfDirFiles.length == 0;
+    }
+
+    private static Path getBaseDir() {
+        if (System.getProperty(TEST_BASE_DIR) != null) {
+            return Path.of(System.getProperty(TEST_BASE_DIR));
+        }
+        return CURRENT_DIR;
+    }
+
+    private static String getFlakyTestReports(List<FlakyRunReport> flakyRunReports, Path baseDir, Set<String> jobs,
+            FlakySummaryIndex flakySummaryIndex) {
+        if (flakyRunReports.isEmpty() && isEmptyDir(baseDir)) {
             return "No flaky test reports found";
         }
         Map<String, FlakyTestWithFiles> testNameToDetail = new HashMap<>();
         var result = new StringBuilder();
-        for (File file : listOfDirFiles) {
-            if (file.getName().startsWith(reportFilePrefix)) {
-                // well, this is obviously imprecise in the sense that we expect stacktrace and failure message
-                // to be always same in all the runs, but here:
-                // https://github.com/quarkus-qe/quarkus-test-suite/pull/2050#issuecomment-2376769937
-                // it was requested that we list tests with list of jobs where they failed,
-                // and we cannot have both (stacktrace per each job and one stacktrace)
-                parseFlakyTestsReport(file.toPath()).forEach(flakyTest -> testNameToDetail
-                        .computeIfAbsent(flakyTest.fullTestName(),
-                                tn -> new FlakyTestWithFiles(new HashSet<>(), flakyTest))
-                        .fileNames().add(file.getName()));
-            }
+        for (FlakyRunReport flakyRunReport : flakyRunReports) {
+            // well, this is obviously imprecise in the sense that we expect stacktrace and failure message
+            // to be always same in all the runs, but here:
+            // https://github.com/quarkus-qe/quarkus-test-suite/pull/2050#issuecomment-2376769937
+            // it was requested that we list tests with list of jobs where they failed,
+            // and we cannot have both (stacktrace per each job and one stacktrace)
+            flakyRunReport.flakyTests().forEach(flakyTest -> testNameToDetail
+                    .computeIfAbsent(flakyTest.fullTestName(), tn -> new FlakyTestWithFiles(new HashSet<>(), flakyTest))
+                    .fileNames().add(flakyRunReport.fileName()));
         }
 
-        testNameToDetail.values().forEach(flakyTest -> result.append("""
-                **`%s`**
-                 - Failure message: `%s`
-                 - Failed in jobs:
-                %s
-                <details>
-                <summary>Failure stacktrace</summary>
+        testNameToDetail.values()
+                .forEach(flakyTest -> result.append("""
+                        **`%s`**
+                         - Failure message: `%s`%s
+                         - Failed in jobs:
+                        %s
+                        <details>
+                        <summary>Failure stacktrace</summary>
 
-                ```
-                %s
-                ```
+                        ```
+                        %s
+                        ```
 
-                </details>
+                        </details>
 
-                ---
-                """.formatted(flakyTest.detail.fullTestName(), flakyTest.detail.failureMessage(),
-                toFailedInJobs(flakyTest.fileNames, jobs), flakyTest.detail.failureStackTrace())));
+                        ---
+                        """.formatted(flakyTest.detail.fullTestName(), flakyTest.detail.failureMessage(),
+                        toFlakeHistory(flakyTest.detail.fullTestName(), flakySummaryIndex),
+                        toFailedInJobs(flakyTest.fileNames, jobs), flakyTest.detail.failureStackTrace())));
 
         return result.toString();
     }
 
+    private static String toFlakeHistory(String fullTestName, FlakySummaryIndex flakySummaryIndex) {
+        if (flakySummaryIndex == null) {
+            return "";
+        }
+        int flakeCount = flakySummaryIndex.getFlakeCount(fullTestName);
+        final String flakeHistory;
+        if (flakeCount == 0) {
+            flakeHistory = "new flake, not found in the flaky run summary";
+        } else if (flakeCount == 1) {
+            flakeHistory = "known flake, failed once according to the flaky run summary";
+        } else {
+            flakeHistory = "known flake, failed %d times according to the flaky run summary".formatted(flakeCount);
+        }
+        return System.lineSeparator() + " - Flake history: " + flakeHistory;
+    }
+
     private static String toFailedInJobs(Set<String> fileNames, Set<String> jobs) {
         // produce:
         // - ABC
@@ -186,7 +268,8 @@ public final class CreateGhPrComment {
         }
 
         // fallback to the filename
-        System.out.println("Unknown format for flaky report filename: " + fileName);
+        // the comment is printed to the standard output, so it must not contain this message
+        System.err.println("Unknown format for flaky report filename: " + fileName);
         return fileName;
     }
 
@@ -213,7 +296,7 @@ public final class CreateGhPrComment {
         return jobs.stream().map(job -> " * " + job).collect(Collectors.joining(System.lineSeparator()));
     }
 
-    private static String getRequiredEnv(String environmentVariableName) {
+    public static String getRequiredEnv(String environmentVariableName) {
         var envVar = System.getenv(environmentVariableName);
         if (envVar == null) {
             throw new IllegalArgumentException("Missing environment variable: " + environmentVariableName);
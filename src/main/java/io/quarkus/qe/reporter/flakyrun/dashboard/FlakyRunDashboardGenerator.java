@@ -0,0 +1,310 @@
+package io.quarkus.qe.reporter.flakyrun.dashboard;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummary.FlakyRunBuild;
+import io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummary.FlakyRunFlake;
+import io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryReader;
+import io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryReader.SummaryTest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+import static io.quarkus.qe.reporter.flakyrun.FlakyReporterUtils.getOptionalArgument;
+import static io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryReporter.FLAKY_SUMMARY_REPORT;
+import static io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryReporter.SUMMARY_REPORT_PATH;
+
+/**
+ * Generates static HTML dashboard from the flaky run summary. The summary is streamed and all the aggregates are
+ * computed here, the dashboard only loads small data chunks: the overview with aggregates, pages of tests and stack
+ * traces of the tests on a page when they are requested. Chunks are JavaScript files that pass JSON to the dashboard,
+ * so that the dashboard works when opened directly from the file system.
+ */
+public final class FlakyRunDashboardGenerator {
+
+    public static final String DASHBOARD_DIR = "dashboard-dir";
+    public static final String TESTS_PER_PAGE = "tests-per-page";
+    public static final String DATA_DIR = "data";
+    private static final String OVERVIEW_CHUNK = "overview";
+    private static final String TESTS_CHUNK_PREFIX = "tests-";
+    private static final String TRACES_CHUNK_PREFIX = "traces-";
+    private static final String UNKNOWN_JOB = "unknown";
+    private static final int TOP_TESTS = 100;
+    private static final int MAX_LISTED_MESSAGE_LENGTH = 300;
+    private static final List<String> STATIC_FILES = List.of("index.html", "dashboard.js", "dashboard.css");
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private final Path summaryReportPath;
+    private final Path dashboardDir;
+    private final int testsPerPage;
+
+    public FlakyRunDashboardGenerator(String[] args) {
+        var summaryReportPath = getOptionalArgument(SUMMARY_REPORT_PATH, args);
+        this.summaryReportPath = Path.of(summaryReportPath == null ? FLAKY_SUMMARY_REPORT : summaryReportPath);
+        var dashboardDir = getOptionalArgument(DASHBOARD_DIR, args);
+        this.dashboardDir = Path.of(dashboardDir == null ? "flaky-dashboard" : dashboardDir);
+        var testsPerPage = getOptionalArgument(TESTS_PER_PAGE, args);
+        this.testsPerPage = testsPerPage == null ? 200 : Integer.parseInt(testsPerPage);
+        if (this.testsPerPage < 1) {
+            throw new IllegalArgumentException(
+                    "Argument '" + TESTS_PER_PAGE + "' must be at least 1, but was " + this.testsPerPage);
+        }
+    }
+
+    record ProjectKey(String name, String baseDir) {
+    }
+
+    record Overview(String generatedAt, long projectCount, long testCount, long flakeCount, List<String> jobs,
+            List<String> days, Map<String, int[]> dailyFlakes, List<ProjectOverview> projects,
+            List<TestOverview> topTests, int pages) {
+    }
+
+    record ProjectOverview(String name, String baseDir, int tests, long occurrences, String lastDateTime,
+            Map<String, Long> jobFlakes, TreeSet<Integer> pages) {
+    }
+
+    record TestOverview(int page, int index, int project, String name, long occurrences, String lastDateTime,
+            Map<String, Long> jobFlakes) {
+    }
+
+    record PageTest(int project, String name, long occurrences, String lastDateTime, Map<String, Long> jobFlakes,
+            Map<String, Integer> dailyFlakes, List<PageFlake> flakes) {
+    }
+
+    /**
+     * Flake without the stack trace, which is stored in a separate chunk and loaded when requested.
+     */
+    record PageFlake(String message, String type, String dateTime, String firstDateTime, int occurrences, String job,
+            String build, List<FlakyRunBuild> builds) {
+    }
+
+    record TraceFlake(String message, String trace) {
+    }
+
+    public void generate() {
+        if (!Files.isRegularFile(summaryReportPath)) {
+            throw new IllegalArgumentException("Summary '" + summaryReportPath + "' does not exist");
+        }
+        var dataDir = dashboardDir.resolve(DATA_DIR);
+        deletePreviousChunks(dataDir);
+        Map<ProjectKey, ProjectAggregate> projects = new LinkedHashMap<>();
+        var dayToJobFlakes = new TreeMap<String, Map<String, Integer>>();
+        var jobs = new TreeSet<String>();
+        var topTests = new PriorityQueue<TestOverview>(Comparator.comparingLong(TestOverview::occurrences));
+        var pageTests = new ArrayList<PageTest>();
+        var pageTraces = new ArrayList<List<TraceFlake>>();
+        int page = 0;
+        long testCount = 0;
+        long flakeCount = 0;
+        try (var reader = FlakyRunSummaryReader.open(summaryReportPath)) {
+            while (reader.hasNext()) {
+                var summaryTest = reader.next();
+                var flakes = summaryTest.testSummary().flakes() == null ? List.<FlakyRunFlake> of()
+                        : summaryTest.testSummary().flakes();
+                if (flakes.isEmpty()) {
+                    continue;
+                }
+                var project = projects.computeIfAbsent(
+                        new ProjectKey(summaryTest.projectName(), summaryTest.projectBaseDir()),
+                        k -> new ProjectAggregate(projects.size()));
+                var pageTest = toPageTest(summaryTest, project.index, flakes, dayToJobFlakes, jobs);
+                project.add(pageTest, page);
+                pageTests.add(pageTest);
+                pageTraces.add(
+                        flakes.stream().map(f -> new TraceFlake(f.failureMessage(), f.failureStackTrace())).toList());
+                topTests.add(new TestOverview(page, pageTests.size() - 1, project.index, pageTest.name(),
+                        pageTest.occurrences(), pageTest.lastDateTime(), pageTest.jobFlakes()));
+                if (topTests.size() > TOP_TESTS) {
+                    topTests.poll();
+                }
+                testCount++;
+                flakeCount += pageTest.occurrences();
+                if (pageTests.size() == testsPerPage) {
+                    writePage(dataDir, page++, pageTests, pageTraces);
+                }
+            }
+        }
+        if (!pageTests.isEmpty()) {
+            writePage(dataDir, page++, pageTests, pageTraces);
+        }
+        var days = toDays(dayToJobFlakes);
+        writeChunk(dataDir, OVERVIEW_CHUNK, new Overview(ZonedDateTime.now().toString(), projects.size(), testCount,
+                flakeCount, List.copyOf(jobs), days, toDailyFlakes(days, dayToJobFlakes, jobs),
+                projects.entrySet().stream().map(e -> e.getValue().toOverview(e.getKey())).toList(),
+                topTests.stream().sorted(Comparator.comparingLong(TestOverview::occurrences).reversed()).toList(),
+                page));
+        copyStaticFiles();
+    }
+
+    private static PageTest toPageTest(SummaryTest summaryTest, int projectIndex, List<FlakyRunFlake> flakes,
+            Map<String, Map<String, Integer>> dayToJobFlakes, TreeSet<String> jobs) {
+        record Occurrences(String dateTime, String ciJobName, int count) {
+        }
+        Map<String, Long> jobFlakes = new TreeMap<>();
+        Map<String, Integer> dailyFlakes = new TreeMap<>();
+        long occurrenceCount = 0;
+        ZonedDateTime lastDateTime = null;
+        for (FlakyRunFlake flake : flakes) {
+            occurrenceCount += flake.occurrenceCount();
+            var dateTime = ZonedDateTime.parse(flake.dateTime());
+            if (lastDateTime == null || dateTime.isAfter(lastDateTime)) {
+                lastDateTime = dateTime;
+            }
+            var builds = flake.latestBuilds();
+            var occurrences = new ArrayList<Occurrences>();
+            builds.forEach(b -> occurrences.add(new Occurrences(b.dateTime(), b.ciJobName(), 1)));
+            // occurrences that are not tracked in builds are older than builds, count them on the first day
+            var untrackedOccurrences = flake.occurrenceCount() - builds.size();
+            if (untrackedOccurrences > 0) {
+                occurrences.add(new Occurrences(flake.firstOccurrenceDateTime(),
+                        builds.get(builds.size() - 1).ciJobName(), untrackedOccurrences));
+            }
+            for (Occurrences occurrence : occurrences) {
+                var job = toJob(occurrence.ciJobName());
+                var day = ZonedDateTime.parse(occurrence.dateTime()).toLocalDate().toString();
+                jobs.add(job);
+                jobFlakes.merge(job, (long) occurrence.count(), Long::sum);
+                dailyFlakes.merge(day, occurrence.count(), Integer::sum);
+                dayToJobFlakes.computeIfAbsent(day, d -> new TreeMap<>()).merge(job, occurrence.count(), Integer::sum);
+            }
+        }
+        var pageFlakes = flakes.stream()
+                .map(f -> new PageFlake(trim(f.failureMessage()), f.failureType(), f.dateTime(),
+                        f.firstOccurrenceDateTime(), f.occurrenceCount(), toJob(f.ciJobName()), f.ciBuildNumber(),
+                        f.builds()))
+                .toList();
+        return new PageTest(projectIndex, summaryTest.testSummary().fullTestName(), occurrenceCount,
+                lastDateTime.toString(), jobFlakes, dailyFlakes, pageFlakes);
+    }
+
+    private static List<String> toDays(TreeMap<String, Map<String, Integer>> dayToJobFlakes) {
+        if (dayToJobFlakes.isEmpty()) {
+            return List.of();
+        }
+        // continuous days, so that charts show days without flakes as well
+        var days = new ArrayList<String>();
+        var lastDay = LocalDate.parse(dayToJobFlakes.lastKey());
+        for (var day = LocalDate.parse(dayToJobFlakes.firstKey()); !day.isAfter(lastDay); day = day.plusDays(1)) {
+            days.add(day.toString());
+        }
+        return days;
+    }
+
+    private static Map<String, int[]> toDailyFlakes(List<String> days, Map<String, Map<String, Integer>> dayToJobFlakes,
+            TreeSet<String> jobs) {
+        Map<String, int[]> dailyFlakes = new LinkedHashMap<>();
+        // empty job name stands for all the jobs
+        Stream.concat(Stream.of(""), jobs.stream()).forEach(job -> dailyFlakes.put(job, new int[days.size()]));
+        for (int i = 0; i < days.size(); i++) {
+            var jobFlakes = dayToJobFlakes.get(days.get(i));
+            if (jobFlakes != null) {
+                for (var entry : jobFlakes.entrySet()) {
+                    dailyFlakes.get(entry.getKey())[i] += entry.getValue();
+                    dailyFlakes.get("")[i] += entry.getValue();
+                }
+            }
+        }
+        return dailyFlakes;
+    }
+
+    private void writePage(Path dataDir, int page, List<PageTest> pageTests, List<List<TraceFlake>> pageTraces) {
+        writeChunk(dataDir, TESTS_CHUNK_PREFIX + page, pageTests);
+        writeChunk(dataDir, TRACES_CHUNK_PREFIX + page, pageTraces);
+        pageTests.clear();
+        pageTraces.clear();
+    }
+
+    private static void writeChunk(Path dataDir, String chunkName, Object data) {
+        try {
+            Files.createDirectories(dataDir);
+            try (var writer = Files.newBufferedWriter(dataDir.resolve(chunkName + ".js"), StandardCharsets.UTF_8)) {
+                writer.write("flakyDashboard.chunkLoaded(");
+                writer.write(OBJECT_MAPPER.writeValueAsString(chunkName));
+                writer.write(", ");
+                OBJECT_MAPPER.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET).writeValue(writer, data);
+                writer.write(");\n");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void deletePreviousChunks(Path dataDir) {
+        if (!Files.isDirectory(dataDir)) {
+            return;
+        }
+        try (Stream<Path> chunks = Files.list(dataDir)) {
+            for (Path chunk : chunks.filter(p -> p.getFileName().toString().endsWith(".js")).toList()) {
+                Files.delete(chunk);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void copyStaticFiles() {
+        for (String staticFile : STATIC_FILES) {
+            try (InputStream in = FlakyRunDashboardGenerator.class.getResourceAsStream(staticFile)) {
+                Objects.requireNonNull(in, "Dashboard file '" + staticFile + "' not found");
+                Files.write(dashboardDir.resolve(staticFile), in.readAllBytes());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static String toJob(String ciJobName) {
+        return ciJobName == null || ciJobName.isEmpty() ? UNKNOWN_JOB : ciJobName;
+    }
+
+    private static String trim(String message) {
+        if (message == null || message.length() <= MAX_LISTED_MESSAGE_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_LISTED_MESSAGE_LENGTH) + "...";
+    }
+
+    private static final class ProjectAggregate {
+
+        private final int index;
+        private final Map<String, Long> jobFlakes = new TreeMap<>();
+        private final TreeSet<Integer> pages = new TreeSet<>();
+        private int tests = 0;
+        private long occurrences = 0;
+        private String lastDateTime = null;
+
+        private ProjectAggregate(int index) {
+            this.index = index;
+        }
+
+        private void add(PageTest test, int page) {
+            tests++;
+            occurrences += test.occurrences();
+            pages.add(page);
+            test.jobFlakes().forEach((job, count) -> jobFlakes.merge(job, count, Long::sum));
+            if (lastDateTime == null
+                    || ZonedDateTime.parse(test.lastDateTime()).isAfter(ZonedDateTime.parse(lastDateTime))) {
+                lastDateTime = test.lastDateTime();
+            }
+        }
+
+        private ProjectOverview toOverview(ProjectKey key) {
+            return new ProjectOverview(key.name(), key.baseDir(), tests, occurrences, lastDateTime, jobFlakes, pages);
+        }
+    }
+}
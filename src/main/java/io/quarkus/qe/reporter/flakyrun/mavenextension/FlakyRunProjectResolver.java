@@ -0,0 +1,156 @@
+package io.quarkus.qe.reporter.flakyrun.mavenextension;
+
+import io.quarkus.qe.reporter.flakyrun.reporter.Project;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginExecution;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.logging.Logger;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Resolves Maven modules and their Surefire and Failsafe report directories inspected by the Flaky Run reporter. Only
+ * modules whose requested goals reach a phase that Surefire or Failsafe is bound to are inspected.
+ */
+public final class FlakyRunProjectResolver {
+
+    public static final String INCLUDE_MODULES = "flaky-run-reporter.include-modules";
+    public static final String EXCLUDE_MODULES = "flaky-run-reporter.exclude-modules";
+    private static final String POM_PACKAGING = "pom";
+    private static final String SUREFIRE_PLUGIN = "org.apache.maven.plugins:maven-surefire-plugin";
+    private static final String FAILSAFE_PLUGIN = "org.apache.maven.plugins:maven-failsafe-plugin";
+    private static final String REPORTS_DIRECTORY = "reportsDirectory";
+    private static final List<String> DEFAULT_LIFECYCLE_PHASES = List.of("validate", "initialize", "generate-sources",
+            "process-sources", "generate-resources", "process-resources", "compile", "process-classes",
+            "generate-test-sources", "process-test-sources", "generate-test-resources", "process-test-resources",
+            "test-compile", "process-test-classes", "test", "prepare-package", "package", "pre-integration-test",
+            "integration-test", "post-integration-test", "verify", "install", "deploy");
+    private final Logger logger;
+    private final List<PathMatcher> includeModules;
+    private final List<PathMatcher> excludeModules;
+    private final List<String> goals;
+    private final int lastPhaseIdx;
+
+    /**
+     * @param goals
+     *            goals and phases requested in the Maven session, e.g. 'clean verify' or 'surefire:test'
+     */
+    public FlakyRunProjectResolver(Logger logger, Properties properties, List<String> goals) {
+        this.logger = logger;
+        this.includeModules = toPathMatchers(properties.getProperty(INCLUDE_MODULES));
+        this.excludeModules = toPathMatchers(properties.getProperty(EXCLUDE_MODULES));
+        this.goals = goals;
+        this.lastPhaseIdx = goals.stream().mapToInt(DEFAULT_LIFECYCLE_PHASES::indexOf).max().orElse(-1);
+    }
+
+    public List<Project> resolve(List<MavenProject> projects, Path rootPath) {
+        // for multi-module projects, we don't inspect project root, because there are no tests
+        // but for single-module project we should just check 'target' of that project
+        boolean isMultiModuleProject = projects.size() > 1;
+
+        return projects.stream().map(p -> {
+            var baseDir = rootPath.relativize(p.getBasedir().toPath());
+            if (isMultiModuleProject && baseDir.toString().isEmpty()) {
+                return null;
+            }
+            if (!isModuleIncluded(p, baseDir)) {
+                logger.debug("Module '" + p.getArtifactId() + "' is excluded from the Flaky Run report");
+                return null;
+            }
+            var reportDirs = toReportDirs(p);
+            if (reportDirs.isEmpty()) {
+                logger.debug("Module '" + p.getArtifactId() + "' runs no tests, skipping it");
+                return null;
+            }
+            return new Project(p.getName(), baseDir, reportDirs);
+        }).filter(Objects::nonNull).toList();
+    }
+
+    private boolean isModuleIncluded(MavenProject project, Path baseDir) {
+        var artifactId = Path.of(project.getArtifactId());
+        if (!includeModules.isEmpty()
+                && includeModules.stream().noneMatch(m -> m.matches(artifactId) || m.matches(baseDir))) {
+            return false;
+        }
+        return excludeModules.stream().noneMatch(m -> m.matches(artifactId) || m.matches(baseDir));
+    }
+
+    private static List<PathMatcher> toPathMatchers(String patterns) {
+        if (patterns == null || patterns.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(patterns.split(",")).map(String::trim).filter(p -> !p.isEmpty())
+                .map(p -> FileSystems.getDefault().getPathMatcher("glob:" + p)).toList();
+    }
+
+    /**
+     * Resolves Surefire and Failsafe report directories from the effective project model, so that custom build
+     * directory and 'reportsDirectory' configuration is honored. Modules with pom packaging and modules without test
+     * plugin executions reached by the requested goals have no report directories.
+     */
+    private List<Path> toReportDirs(MavenProject project) {
+        if (POM_PACKAGING.equals(project.getPackaging())) {
+            return List.of();
+        }
+        var buildDir = Path.of(project.getBuild().getDirectory());
+        return Stream.concat(
+                toReportDirs(project, project.getPlugin(FAILSAFE_PLUGIN), "failsafe", "integration-test",
+                        buildDir.resolve("failsafe-reports")),
+                toReportDirs(project, project.getPlugin(SUREFIRE_PLUGIN), "surefire", "test",
+                        buildDir.resolve("surefire-reports")))
+                .toList();
+    }
+
+    private Stream<Path> toReportDirs(MavenProject project, Plugin plugin, String goalPrefix, String defaultPhase,
+            Path defaultReportDir) {
+        if (plugin == null) {
+            return Stream.empty();
+        }
+        boolean invokedDirectly = isInvokedDirectly(plugin, goalPrefix);
+        // Surefire is bound to the 'test' phase by packaging even without declared executions, Failsafe is not
+        var executions = plugin.getExecutions().isEmpty() && "test".equals(defaultPhase)
+                ? List.of(new PluginExecution())
+                : plugin.getExecutions();
+        var pluginReportDir = toReportDir(project, plugin.getConfiguration(), defaultReportDir);
+        Set<Path> reportDirs = new LinkedHashSet<>();
+        if (invokedDirectly) {
+            reportDirs.add(pluginReportDir);
+        }
+        // executions inherit plugin configuration, but each of them can configure different directory
+        executions.stream()
+                .filter(e -> invokedDirectly || isPhaseReached(e.getPhase() == null ? defaultPhase : e.getPhase()))
+                .forEach(e -> reportDirs.add(toReportDir(project, e.getConfiguration(), pluginReportDir)));
+        return reportDirs.stream();
+    }
+
+    private boolean isInvokedDirectly(Plugin plugin, String goalPrefix) {
+        return goals.stream().anyMatch(g -> g.startsWith(goalPrefix + ":")
+                || g.startsWith(plugin.getGroupId() + ":" + plugin.getArtifactId() + ":"));
+    }
+
+    private boolean isPhaseReached(String phase) {
+        int phaseIdx = DEFAULT_LIFECYCLE_PHASES.indexOf(phase);
+        return phaseIdx != -1 && phaseIdx <= lastPhaseIdx;
+    }
+
+    private static Path toReportDir(MavenProject project, Object configuration, Path defaultReportDir) {
+        if (configuration instanceof Xpp3Dom dom && dom.getChild(REPORTS_DIRECTORY) != null) {
+            var reportDir = dom.getChild(REPORTS_DIRECTORY).getValue();
+            // expressions are interpolated in the effective model, unless they reference unknown properties
+            if (reportDir != null && !reportDir.isBlank() && !reportDir.contains("${")) {
+                return project.getBasedir().toPath().resolve(reportDir.trim());
+            }
+        }
+        return defaultReportDir;
+    }
+}
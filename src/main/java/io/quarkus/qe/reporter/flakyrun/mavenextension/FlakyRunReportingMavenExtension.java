@@ -2,6 +2,7 @@ package io.quarkus.qe.reporter.flakyrun.mavenextension;
 
 import io.quarkus.qe.reporter.flakyrun.reporter.FlakyRunReporter;
 import io.quarkus.qe.reporter.flakyrun.reporter.Project;
+import io.quarkus.qe.reporter.flakyrun.reporter.StackTraceTrimmer;
 import org.apache.maven.AbstractMavenLifecycleParticipant;
 import org.apache.maven.execution.MavenSession;
 import org.codehaus.plexus.logging.Logger;
@@ -11,6 +12,7 @@ import javax.inject.Named;
 import javax.inject.Singleton;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Properties;
 
 @Singleton
 @Named
@@ -27,25 +29,30 @@ public class FlakyRunReportingMavenExtension extends AbstractMavenLifecycleParti
     public void afterSessionEnd(MavenSession session) {
         logger.debug("Flaky run reporter started");
 
-        var projects = getProjectsFromMvnSession(session);
+        var properties = getProperties(session);
+        var projects = getProjectsFromMvnSession(session, properties);
         if (!projects.isEmpty()) {
-            new FlakyRunReporter(logger).createReport(projects);
+            new FlakyRunReporter(logger, StackTraceTrimmer.of(properties, logger)).createReport(projects);
         } else {
             logger.info("No projects found in this Maven session, won't generate Flaky Run report");
         }
     }
 
-    private static List<Project> getProjectsFromMvnSession(MavenSession session) {
-        final Path rootPath = Path.of("").toAbsolutePath();
-
-        // for multi-module projects, we don't inspect project root, because there are no tests
-        // but for single-module project we should just check 'target' of that project
-        boolean isNotMultiModuleProject = session.getResult().getTopologicallySortedProjects().size() == 1;
+    private static Properties getProperties(MavenSession session) {
+        // user properties like '-Dflaky-run-reporter.max-stack-trace-frames=20' take precedence
+        var properties = new Properties();
+        properties.putAll(session.getSystemProperties());
+        properties.putAll(session.getUserProperties());
+        return properties;
+    }
 
-        return session.getResult().getTopologicallySortedProjects().stream()
-                .map(p -> new Project(p.getName(), rootPath.relativize(p.getBasedir().toPath()))).filter(p -> {
-                    var rootProject = !p.baseDir().toString().isEmpty();
-                    return isNotMultiModuleProject || rootProject;
-                }).toList();
+    private List<Project> getProjectsFromMvnSession(MavenSession session, Properties properties) {
+        var goals = session.getGoals();
+        if (goals.isEmpty() && session.getTopLevelProject() != null
+                && session.getTopLevelProject().getDefaultGoal() != null) {
+            goals = List.of(session.getTopLevelProject().getDefaultGoal().trim().split("\\s+"));
+        }
+        return new FlakyRunProjectResolver(logger, properties, goals)
+                .resolve(session.getResult().getTopologicallySortedProjects(), Path.of("").toAbsolutePath());
     }
 }
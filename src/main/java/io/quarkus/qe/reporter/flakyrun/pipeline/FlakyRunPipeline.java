@@ -0,0 +1,58 @@
+package io.quarkus.qe.reporter.flakyrun.pipeline;
+
+import io.quarkus.qe.reporter.flakyrun.commentator.CreateGhPrComment;
+import io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryReporter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static io.quarkus.qe.reporter.flakyrun.FlakyReporterUtils.getOptionalArgument;
+import static io.quarkus.qe.reporter.flakyrun.commentator.CreateGhPrComment.GH_REPO_ENV_VAR_NAME;
+import static io.quarkus.qe.reporter.flakyrun.commentator.CreateGhPrComment.WORKFLOW_ID_ENV_VAR_NAME;
+import static io.quarkus.qe.reporter.flakyrun.commentator.CreateGhPrComment.getRequiredEnv;
+
+/**
+ * Loads flaky run reports once and uses them both for the GitHub PR comment and for the flaky run summary. Accepts
+ * arguments of both {@link CreateGhPrComment} and {@link FlakyRunSummaryReporter}.
+ */
+public final class FlakyRunPipeline {
+
+    public static final String PR_COMMENT_PATH = "pr-comment-path";
+    private final String[] args;
+    private final String ghRepo;
+    private final String workflowId;
+
+    public FlakyRunPipeline(String[] args) {
+        this(args, getRequiredEnv(GH_REPO_ENV_VAR_NAME), getRequiredEnv(WORKFLOW_ID_ENV_VAR_NAME));
+    }
+
+    public FlakyRunPipeline(String[] args, String ghRepo, String workflowId) {
+        this.args = args;
+        this.ghRepo = ghRepo;
+        this.workflowId = workflowId;
+    }
+
+    public void run() {
+        var flakyRunReports = CreateGhPrComment.loadFlakyRunReports(args);
+        var summaryReporter = new FlakyRunSummaryReporter(args);
+        var fileNameToJobName = CreateGhPrComment.getJobNameResolver(args);
+        // comment goes first, so that known flakes are looked up in the summary index before this run is added
+        // and when this run was already added by a CI retry, the comment uses the index without this run
+        var flakySummaryIndex = summaryReporter.withoutIngestedReports(CreateGhPrComment.readFlakySummaryIndex(args),
+                flakyRunReports, fileNameToJobName);
+        var commentator = new CreateGhPrComment(args, ghRepo, workflowId, flakyRunReports, flakySummaryIndex);
+        // comment is emitted before the summary is written, so that it is not lost when the summary fails
+        var prCommentPath = getOptionalArgument(PR_COMMENT_PATH, args);
+        if (prCommentPath == null) {
+            commentator.printToStdOut();
+        } else {
+            try {
+                Files.writeString(Path.of(prCommentPath), commentator.getComment());
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        summaryReporter.createReport(flakyRunReports, fileNameToJobName);
+    }
+}
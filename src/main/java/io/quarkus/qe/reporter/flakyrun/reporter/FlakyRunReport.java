@@ -0,0 +1,25 @@
+package io.quarkus.qe.reporter.flakyrun.reporter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static io.quarkus.qe.reporter.flakyrun.FlakyReporterUtils.toDigest;
+
+/**
+ * Parsed flaky run report file, the file is read only once for both parsing and the digest.
+ */
+public record FlakyRunReport(String fileName, String reportDigest, List<FlakyTest> flakyTests) {
+
+    public static FlakyRunReport parse(Path reportPath) {
+        final byte[] report;
+        try {
+            report = Files.readAllBytes(reportPath);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return new FlakyRunReport(reportPath.getFileName().toString(), toDigest(report),
+                FlakyRunReporter.parseFlakyTestsReport(report));
+    }
+}
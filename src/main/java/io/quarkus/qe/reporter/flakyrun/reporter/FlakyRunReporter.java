@@ -22,12 +22,16 @@ public class FlakyRunReporter {
     public static final String FLAKY_RUN_REPORT = "flaky-run-report.json";
     private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
     private static final String TARGET_DIR = "target";
-    private static final Path MAVEN_SUREFIRE_REPORTS_PATH = Path.of(TARGET_DIR, "surefire-reports");
-    private static final Path MAVEN_FAILSAFE_REPORTS_PATH = Path.of(TARGET_DIR, "failsafe-reports");
     private final Logger logger;
+    private final StackTraceTrimmer stackTraceTrimmer;
 
     public FlakyRunReporter(Logger logger) {
+        this(logger, StackTraceTrimmer.NONE);
+    }
+
+    public FlakyRunReporter(Logger logger, StackTraceTrimmer stackTraceTrimmer) {
         this.logger = logger;
+        this.stackTraceTrimmer = stackTraceTrimmer;
     }
 
     public static List<FlakyTest> parseFlakyTestsReport(Path reportPath) {
@@ -42,11 +46,20 @@ public class FlakyRunReporter {
         }
     }
 
+    public static List<FlakyTest> parseFlakyTestsReport(byte[] report) {
+        try {
+            return OBJECT_MAPPER.readValue(report, new TypeReference<>() {
+            });
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     public void createReport(List<Project> projects) {
         createFlakyRunReport(projectsToFlakyTests(projects));
     }
 
-    private static List<FlakyTest> projectsToFlakyTests(List<Project> projects) {
+    private List<FlakyTest> projectsToFlakyTests(List<Project> projects) {
         return projects.stream().flatMap(project -> testDirsToFlakyTests(toTestDirs(project), project)).toList();
     }
 
@@ -61,17 +74,16 @@ public class FlakyRunReporter {
     }
 
     private static List<File> toTestDirs(Project project) {
-        return Stream.of(project.baseDir()).flatMap(baseDir -> Stream.of(baseDir.resolve(MAVEN_FAILSAFE_REPORTS_PATH),
-                baseDir.resolve(MAVEN_SUREFIRE_REPORTS_PATH))).filter(Files::exists).map(Path::toFile).toList();
+        return project.reportDirs().stream().filter(Files::exists).map(Path::toFile).toList();
     }
 
-    private static Stream<FlakyTest> testDirsToFlakyTests(List<File> testDirs, Project project) {
+    private Stream<FlakyTest> testDirsToFlakyTests(List<File> testDirs, Project project) {
         if (testDirs.isEmpty()) {
             return Stream.empty();
         }
         return new SurefireReportParser(testDirs, new NullConsoleLogger()).parseXMLReportFiles().stream()
                 .filter(r -> r.getNumberOfFlakes() > 0).map(ReportTestSuite::getTestCases).flatMap(Collection::stream)
                 .filter(ReportTestCase::hasFlakes)
-                .flatMap(reportTestCase -> FlakyTest.newInstances(reportTestCase, project));
+                .flatMap(reportTestCase -> FlakyTest.newInstances(reportTestCase, project, stackTraceTrimmer));
     }
 }
@@ -1,29 +1,51 @@
 package io.quarkus.qe.reporter.flakyrun.reporter;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import org.apache.maven.plugins.surefire.report.ReportTestCase;
 
 import java.time.ZonedDateTime;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
+/**
+ * @param rerun
+ *            index of the failed rerun of the same test case, null for the first failure; failed reruns share the date
+ *            time, therefore the date time together with the rerun index identify the failure occurrence
+ */
 public record FlakyTest(String projectName, String projectBaseDir, String fullTestName, String failureMessage,
-        String failureType, String failureStackTrace, String dateTime) {
+        String failureType, String failureStackTrace, String dateTime,
+        @JsonInclude(JsonInclude.Include.NON_NULL) String originalFailureStackTrace,
+        @JsonInclude(JsonInclude.Include.NON_NULL) Integer rerun) {
 
-    static Stream<FlakyTest> newInstances(ReportTestCase reportTestCase, Project project) {
+    public FlakyTest(String projectName, String projectBaseDir, String fullTestName, String failureMessage,
+            String failureType, String failureStackTrace, String dateTime) {
+        this(projectName, projectBaseDir, fullTestName, failureMessage, failureType, failureStackTrace, dateTime, null,
+                null);
+    }
+
+    static Stream<FlakyTest> newInstances(ReportTestCase reportTestCase, Project project,
+            StackTraceTrimmer stackTraceTrimmer) {
         final String now = ZonedDateTime.now().toString();
-        Stream<FlakyTest> result = Stream.empty();
-        if (!reportTestCase.getFlakyFailures().isEmpty()) {
-            result = reportTestCase.getFlakyFailures().stream()
-                    .map(s -> new FlakyTest(project.name(), project.baseDir().toString(), reportTestCase.getFullName(),
-                            s.getMessage(), s.getType(), s.getStackTrace(), now));
-        }
-        if (!reportTestCase.getFlakyErrors().isEmpty()) {
-            result = Stream.concat(result,
-                    reportTestCase.getFlakyErrors().stream()
-                            .map(s -> new FlakyTest(project.name(), project.baseDir().toString(),
-                                    reportTestCase.getFullName(), s.getMessage(), s.getType(), s.getStackTrace(),
-                                    now)));
-        }
-        return result;
+        var flakyFailures = reportTestCase.getFlakyFailures();
+        var flakyErrors = reportTestCase.getFlakyErrors();
+        return Stream.concat(
+                IntStream.range(0, flakyFailures.size())
+                        .mapToObj(i -> newInstance(project, reportTestCase.getFullName(),
+                                flakyFailures.get(i).getMessage(), flakyFailures.get(i).getType(),
+                                flakyFailures.get(i).getStackTrace(), now, i, stackTraceTrimmer)),
+                IntStream.range(0, flakyErrors.size())
+                        .mapToObj(i -> newInstance(project, reportTestCase.getFullName(),
+                                flakyErrors.get(i).getMessage(), flakyErrors.get(i).getType(),
+                                flakyErrors.get(i).getStackTrace(), now, flakyFailures.size() + i, stackTraceTrimmer)));
+    }
+
+    private static FlakyTest newInstance(Project project, String fullTestName, String failureMessage,
+            String failureType, String failureStackTrace, String dateTime, int rerun,
+            StackTraceTrimmer stackTraceTrimmer) {
+        return new FlakyTest(project.name(), project.baseDir().toString(), fullTestName,
+                stackTraceTrimmer.trimMessage(failureMessage), failureType,
+                stackTraceTrimmer.trimStackTrace(failureStackTrace), dateTime,
+                stackTraceTrimmer.keepOriginalStackTrace() ? failureStackTrace : null, rerun == 0 ? null : rerun);
     }
 
 }
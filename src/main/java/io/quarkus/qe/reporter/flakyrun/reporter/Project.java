@@ -1,6 +1,23 @@
 package io.quarkus.qe.reporter.flakyrun.reporter;
 
 import java.nio.file.Path;
+import java.util.List;
 
-public record Project(String name, Path baseDir) {
+/**
+ * @param reportDirs
+ *            Surefire and Failsafe report directories of the project
+ */
+public record Project(String name, Path baseDir, List<Path> reportDirs) {
+
+    private static final Path TARGET_DIR = Path.of("target");
+    private static final Path MAVEN_SUREFIRE_REPORTS_PATH = TARGET_DIR.resolve("surefire-reports");
+    private static final Path MAVEN_FAILSAFE_REPORTS_PATH = TARGET_DIR.resolve("failsafe-reports");
+
+    /**
+     * Creates project with default report directories.
+     */
+    public Project(String name, Path baseDir) {
+        this(name, baseDir,
+                List.of(baseDir.resolve(MAVEN_FAILSAFE_REPORTS_PATH), baseDir.resolve(MAVEN_SUREFIRE_REPORTS_PATH)));
+    }
 }
@@ -0,0 +1,277 @@
+package io.quarkus.qe.reporter.flakyrun.reporter;
+
+import org.codehaus.plexus.logging.Logger;
+import org.codehaus.plexus.logging.console.ConsoleLogger;
+
+import java.util.Arrays;
+import java.util.Properties;
+
+/**
+ * Trims failure stack traces and messages before they are stored in the flaky run report. Stack trace is processed in
+ * one pass over its lines, lines are copied to the result by ranges so that no per-line strings are created.
+ */
+public final class StackTraceTrimmer {
+
+    public static final String TRIM_STACK_TRACE = "flaky-run-reporter.trim-stack-trace";
+    public static final String MAX_STACK_TRACE_FRAMES = "flaky-run-reporter.max-stack-trace-frames";
+    public static final String COLLAPSED_FRAME_PREFIXES = "flaky-run-reporter.collapsed-frame-prefixes";
+    public static final String MAX_FAILURE_MESSAGE_LENGTH = "flaky-run-reporter.max-failure-message-length";
+    public static final String KEEP_ORIGINAL_STACK_TRACE = "flaky-run-reporter.keep-original-stack-trace";
+    public static final String DEFAULT_COLLAPSED_FRAME_PREFIXES = "org.junit.,org.apache.maven.surefire.,"
+            + "java.lang.reflect.,jdk.internal.reflect.,sun.reflect.,java.util.stream.,java.util.ArrayList.forEach,"
+            + "io.quarkus.test.junit.,io.quarkus.bootstrap.";
+    public static final StackTraceTrimmer NONE = new StackTraceTrimmer(false, -1, new String[0], -1, false);
+    private static final String FRAME = "at ";
+    private static final String MORE = "... ";
+    private static final String MORE_SUFFIX = " more";
+    private static final String FRAME_END = ")";
+    private static final String CAUSED_BY = "Caused by: ";
+    private static final String SUPPRESSED = "Suppressed: ";
+    private static final String TRUNCATED = "...";
+    private final boolean enabled;
+    private final int maxFrames;
+    private final String[] collapsedFramePrefixes;
+    private final int maxMessageLength;
+    private final boolean keepOriginalStackTrace;
+
+    public StackTraceTrimmer(boolean enabled, int maxFrames, String[] collapsedFramePrefixes, int maxMessageLength,
+            boolean keepOriginalStackTrace) {
+        this.enabled = enabled;
+        this.maxFrames = maxFrames;
+        this.collapsedFramePrefixes = collapsedFramePrefixes;
+        this.maxMessageLength = maxMessageLength;
+        this.keepOriginalStackTrace = keepOriginalStackTrace;
+    }
+
+    public static StackTraceTrimmer of(Properties properties) {
+        return of(properties, new ConsoleLogger(Logger.LEVEL_WARN, StackTraceTrimmer.class.getSimpleName()));
+    }
+
+    public static StackTraceTrimmer of(Properties properties, Logger logger) {
+        var prefixes = properties.getProperty(COLLAPSED_FRAME_PREFIXES, DEFAULT_COLLAPSED_FRAME_PREFIXES);
+        return new StackTraceTrimmer(Boolean.parseBoolean(properties.getProperty(TRIM_STACK_TRACE, "true")),
+                getIntProperty(properties, MAX_STACK_TRACE_FRAMES, 50, logger),
+                Arrays.stream(prefixes.split(",")).map(String::trim).filter(p -> !p.isEmpty()).toArray(String[]::new),
+                getIntProperty(properties, MAX_FAILURE_MESSAGE_LENGTH, 2000, logger),
+                Boolean.parseBoolean(properties.getProperty(KEEP_ORIGINAL_STACK_TRACE, "false")));
+    }
+
+    private static int getIntProperty(Properties properties, String propertyName, int defaultValue, Logger logger) {
+        var value = properties.getProperty(propertyName);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            // invalid configuration must not fail the build that has already finished
+            logger.warn("Property '%s' value '%s' is not a number, using default value %d".formatted(propertyName,
+                    value, defaultValue));
+            return defaultValue;
+        }
+    }
+
+    public boolean keepOriginalStackTrace() {
+        return enabled && keepOriginalStackTrace;
+    }
+
+    public String trimMessage(String message) {
+        if (!enabled || message == null || maxMessageLength < 0 || message.length() <= maxMessageLength) {
+            return message;
+        }
+        return message.substring(0, maxMessageLength) + TRUNCATED;
+    }
+
+    /**
+     * Keeps at most max frames per each exception in the cause chain, remaining frames are compacted to the '... N
+     * frames trimmed' line. Original '... N more' lines are kept as they are, because they mean frames in common with
+     * the enclosing trace. Consecutive frames matching collapsed prefixes are replaced with one line. Exception
+     * messages (including multi-line messages) are limited to the max message length.
+     */
+    public String trimStackTrace(String stackTrace) {
+        if (!enabled || stackTrace == null || stackTrace.isEmpty()) {
+            return stackTrace;
+        }
+        var state = new State(new StringBuilder(stackTrace.length()));
+        int length = stackTrace.length();
+        int lineStart = 0;
+        while (lineStart < length) {
+            int lineEnd = stackTrace.indexOf('\n', lineStart);
+            if (lineEnd < 0) {
+                lineEnd = length;
+            }
+            // drop Windows line endings from the processed range, new lines are always '\n'
+            int contentEnd = lineEnd > lineStart && stackTrace.charAt(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+            processLine(stackTrace, lineStart, contentEnd, state);
+            lineStart = lineEnd + 1;
+        }
+        endBlock(stackTrace, state);
+        // drop trailing line separator
+        int resultLength = state.result.length();
+        if (resultLength > 0 && state.result.charAt(resultLength - 1) == '\n') {
+            state.result.setLength(resultLength - 1);
+        }
+        return state.result.toString();
+    }
+
+    private void processLine(String trace, int start, int end, State state) {
+        int contentStart = start;
+        while (contentStart < end && Character.isWhitespace(trace.charAt(contentStart))) {
+            contentStart++;
+        }
+        // frames and '... N more' lines are always indented, message lines starting with 'at ' are not frames
+        boolean indented = contentStart > start;
+        if (indented && isFrame(trace, contentStart, end)) {
+            processFrame(trace, start, contentStart, end, state);
+        } else if (indented && isMoreLine(trace, contentStart, end)) {
+            state.moreLineStart = start;
+            state.moreLineEnd = end;
+            if (state.frameIndentEnd < 0) {
+                state.frameIndentStart = start;
+                state.frameIndentEnd = contentStart;
+            }
+        } else if (trace.startsWith(CAUSED_BY, contentStart) || trace.startsWith(SUPPRESSED, contentStart)) {
+            endBlock(trace, state);
+            appendMessageLine(trace, start, end, state);
+        } else {
+            // first line or continuation of a multi-line exception message
+            appendMessageLine(trace, start, end, state);
+        }
+    }
+
+    private void processFrame(String trace, int start, int contentStart, int end, State state) {
+        if (state.frameIndentEnd < 0) {
+            state.frameIndentStart = start;
+            state.frameIndentEnd = contentStart;
+        }
+        if (maxFrames >= 0 && state.keptFrames >= maxFrames) {
+            state.omittedFrames += 1 + state.collapsedFrames;
+            state.collapsedFrames = 0;
+            return;
+        }
+        if (isCollapsed(trace, contentStart + FRAME.length(), end)) {
+            if (state.collapsedFrames == 0) {
+                state.collapsedFrameStart = start;
+                state.collapsedFrameEnd = end;
+            }
+            state.collapsedFrames++;
+            return;
+        }
+        flushCollapsedFrames(trace, state);
+        state.result.append(trace, start, end).append('\n');
+        state.keptFrames++;
+    }
+
+    private boolean isCollapsed(String trace, int frameStart, int end) {
+        // frames can start with module or class loader like 'java.base/java.lang.reflect.Method.invoke(...)'
+        int classStart = frameStart;
+        for (int i = frameStart; i < end; i++) {
+            char ch = trace.charAt(i);
+            if (ch == '(') {
+                break;
+            }
+            if (ch == '/') {
+                classStart = i + 1;
+            }
+        }
+        for (String prefix : collapsedFramePrefixes) {
+            if (trace.startsWith(prefix, classStart)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void flushCollapsedFrames(String trace, State state) {
+        if (state.collapsedFrames == 1) {
+            state.result.append(trace, state.collapsedFrameStart, state.collapsedFrameEnd).append('\n');
+        } else if (state.collapsedFrames > 1) {
+            state.result.append(trace, state.frameIndentStart, state.frameIndentEnd).append(MORE)
+                    .append(state.collapsedFrames).append(" framework frames omitted\n");
+        }
+        state.collapsedFrames = 0;
+    }
+
+    private void appendMessageLine(String trace, int start, int end, State state) {
+        if (maxMessageLength < 0) {
+            state.result.append(trace, start, end).append('\n');
+            return;
+        }
+        int remaining = maxMessageLength - state.messageLength;
+        if (remaining <= 0) {
+            if (!state.messageTruncated) {
+                state.result.append(TRUNCATED).append('\n');
+                state.messageTruncated = true;
+            }
+            return;
+        }
+        int lineLength = end - start;
+        if (lineLength <= remaining) {
+            state.result.append(trace, start, end).append('\n');
+            state.messageLength += lineLength;
+        } else {
+            state.result.append(trace, start, start + remaining).append(TRUNCATED).append('\n');
+            state.messageLength = maxMessageLength;
+            state.messageTruncated = true;
+        }
+    }
+
+    private void endBlock(String trace, State state) {
+        flushCollapsedFrames(trace, state);
+        if (state.omittedFrames > 0) {
+            state.result.append(trace, state.frameIndentStart, state.frameIndentEnd).append(MORE)
+                    .append(state.omittedFrames).append(state.omittedFrames == 1 ? " frame" : " frames")
+                    .append(" trimmed\n");
+        }
+        if (state.moreLineStart >= 0) {
+            state.result.append(trace, state.moreLineStart, state.moreLineEnd).append('\n');
+        }
+        state.keptFrames = 0;
+        state.omittedFrames = 0;
+        state.moreLineStart = -1;
+        state.moreLineEnd = -1;
+        state.messageLength = 0;
+        state.messageTruncated = false;
+        state.frameIndentStart = -1;
+        state.frameIndentEnd = -1;
+    }
+
+    private static boolean isFrame(String trace, int contentStart, int end) {
+        return trace.startsWith(FRAME, contentStart) && trace.startsWith(FRAME_END, end - FRAME_END.length());
+    }
+
+    private static boolean isMoreLine(String trace, int contentStart, int end) {
+        int numberStart = contentStart + MORE.length();
+        int numberEnd = end - MORE_SUFFIX.length();
+        if (numberStart >= numberEnd || !trace.startsWith(MORE, contentStart)
+                || !trace.startsWith(MORE_SUFFIX, numberEnd)) {
+            return false;
+        }
+        for (int i = numberStart; i < numberEnd; i++) {
+            char ch = trace.charAt(i);
+            if (ch < '0' || ch > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class State {
+        private final StringBuilder result;
+        private int keptFrames = 0;
+        private int omittedFrames = 0;
+        private int collapsedFrames = 0;
+        private int collapsedFrameStart = -1;
+        private int collapsedFrameEnd = -1;
+        private int frameIndentStart = -1;
+        private int frameIndentEnd = -1;
+        private int moreLineStart = -1;
+        private int moreLineEnd = -1;
+        private int messageLength = 0;
+        private boolean messageTruncated = false;
+
+        private State(StringBuilder result) {
+            this.result = result;
+        }
+    }
+}
@@ -1,9 +1,32 @@
 package io.quarkus.qe.reporter.flakyrun.summary;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
 import java.time.ZonedDateTime;
+import java.util.Comparator;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// metadata go first, so that they can be read without parsing all the projects
+@JsonPropertyOrder({ "metadata", "flakyProjects" })
+public record FlakyRunSummary(@JsonInclude(JsonInclude.Include.NON_NULL) FlakyRunSummaryMetadata metadata,
+        List<FlakyRunProjectSummary> flakyProjects) {
+
+    public FlakyRunSummary(List<FlakyRunProjectSummary> flakyProjects) {
+        this(null, flakyProjects);
+    }
+
+    public record FlakyRunSummaryMetadata(List<FlakyRunIngestedReport> ingestedReports) {
+    }
+
+    /**
+     * Flaky run report that was already added to the summary.
+     */
+    public record FlakyRunIngestedReport(String reportDigest, String ciJobName, String ciBuildNumber, String dateTime) {
+    }
 
-public record FlakyRunSummary(List<FlakyRunProjectSummary> flakyProjects) {
     public record FlakyRunProjectSummary(String projectName, String projectBaseDir,
             List<FlakyRunTestSummary> flakeTests) {
     }
@@ -11,13 +34,178 @@ public record FlakyRunSummary(List<FlakyRunProjectSummary> flakyProjects) {
     public record FlakyRunTestSummary(String fullTestName, List<FlakyRunFlake> flakes) {
     }
 
+    /**
+     * One or more occurrences of the same failure. Repeated occurrences with the same failure message, type and stack
+     * trace are aggregated into one flake, in which case the date time, the CI job name and the CI build number refer
+     * to the latest occurrence. Flakes created by older versions of this project have no occurrences count.
+     *
+     * @param occurrences
+     *            number of aggregated occurrences, null for a single occurrence
+     * @param firstDateTime
+     *            date time of the first occurrence, null for a single occurrence
+     * @param builds
+     *            latest occurrences, at most {@link #MAX_BUILDS} are kept, null for a single occurrence
+     * @param rerun
+     *            rerun index of the latest occurrence, null for the first failure of the test case
+     */
     public record FlakyRunFlake(String failureMessage, String failureType, String failureStackTrace, String dateTime,
-            String ciJobName, String ciBuildNumber) implements Comparable<FlakyRunFlake> {
+            String ciJobName, String ciBuildNumber, @JsonInclude(JsonInclude.Include.NON_NULL) Integer occurrences,
+            @JsonInclude(JsonInclude.Include.NON_NULL) String firstDateTime,
+            @JsonInclude(JsonInclude.Include.NON_NULL) List<FlakyRunBuild> builds,
+            @JsonInclude(JsonInclude.Include.NON_NULL) Integer rerun) implements Comparable<FlakyRunFlake> {
+
+        public static final int MAX_BUILDS = 20;
+
+        public FlakyRunFlake(String failureMessage, String failureType, String failureStackTrace, String dateTime,
+                String ciJobName, String ciBuildNumber) {
+            this(failureMessage, failureType, failureStackTrace, dateTime, ciJobName, ciBuildNumber, null);
+        }
+
+        public FlakyRunFlake(String failureMessage, String failureType, String failureStackTrace, String dateTime,
+                String ciJobName, String ciBuildNumber, Integer rerun) {
+            this(failureMessage, failureType, failureStackTrace, dateTime, ciJobName, ciBuildNumber, null, null, null,
+                    rerun);
+        }
+
         @Override
         public int compareTo(FlakyRunFlake that) {
             ZonedDateTime thatDateTime = ZonedDateTime.parse(that.dateTime());
             ZonedDateTime thisDateTime = ZonedDateTime.parse(dateTime());
             return thisDateTime.compareTo(thatDateTime);
         }
+
+        public int occurrenceCount() {
+            return occurrences == null ? 1 : occurrences;
+        }
+
+        public String firstOccurrenceDateTime() {
+            return firstDateTime == null ? dateTime : firstDateTime;
+        }
+
+        /**
+         * @return latest occurrences sorted from the newest one
+         */
+        public List<FlakyRunBuild> latestBuilds() {
+            return builds == null ? List.of(new FlakyRunBuild(dateTime, ciJobName, ciBuildNumber, rerun)) : builds;
+        }
+
+        /**
+         * @return number of occurrences after the date time, exact as long as all such occurrences are kept in builds
+         */
+        public int occurrencesAfter(ZonedDateTime dateTime) {
+            if (ZonedDateTime.parse(firstOccurrenceDateTime()).isAfter(dateTime)) {
+                return occurrenceCount();
+            }
+            return (int) latestBuilds().stream().filter(b -> ZonedDateTime.parse(b.dateTime()).isAfter(dateTime))
+                    .count();
+        }
+
+        /**
+         * Aggregates occurrences of the same failure, occurrence with the same date time and rerun index is only
+         * counted once. Occurrences older than the tracked builds can't be told apart, therefore when both flakes have
+         * such occurrences in overlapping date time ranges (e.g. merged copies of the same summary), they are assumed
+         * to be the same occurrences and only the greater count of them is kept. The result is a lower bound.
+         */
+        public FlakyRunFlake aggregate(FlakyRunFlake that) {
+            var thisBuilds = latestBuilds();
+            var thatBuilds = that.latestBuilds();
+            var thisOccurrences = thisBuilds.stream().map(FlakyRunBuild::toOccurrenceKey).collect(Collectors.toSet());
+            var duplicates = (int) thatBuilds.stream().filter(b -> thisOccurrences.contains(b.toOccurrenceKey()))
+                    .count();
+            int occurrences;
+            if (hasOverlappingUntrackedOccurrences(that)) {
+                // both flakes track all their occurrences since the later of the oldest tracked builds
+                var cutoff = Stream.of(thisBuilds.get(thisBuilds.size() - 1), thatBuilds.get(thatBuilds.size() - 1))
+                        .map(b -> ZonedDateTime.parse(b.dateTime())).max(Comparator.naturalOrder()).orElseThrow();
+                var thisTracked = thisBuilds.stream().filter(b -> !ZonedDateTime.parse(b.dateTime()).isBefore(cutoff))
+                        .map(FlakyRunBuild::toOccurrenceKey).collect(Collectors.toSet());
+                var thatTracked = thatBuilds.stream().filter(b -> !ZonedDateTime.parse(b.dateTime()).isBefore(cutoff))
+                        .map(FlakyRunBuild::toOccurrenceKey).collect(Collectors.toSet());
+                var thisOlder = occurrenceCount() - thisTracked.size();
+                var thatOlder = that.occurrenceCount() - thatTracked.size();
+                thisTracked.addAll(thatTracked);
+                occurrences = thisTracked.size() + Math.max(thisOlder, thatOlder);
+            } else {
+                occurrences = occurrenceCount() + that.occurrenceCount() - duplicates;
+            }
+            var builds = Stream
+                    .concat(thisBuilds.stream(),
+                            thatBuilds.stream().filter(b -> !thisOccurrences.contains(b.toOccurrenceKey())))
+                    .sorted(Comparator.comparing((FlakyRunBuild b) -> ZonedDateTime.parse(b.dateTime())).reversed())
+                    .limit(MAX_BUILDS).toList();
+            var latest = compareTo(that) >= 0 ? this : that;
+            var firstDateTime = ZonedDateTime.parse(firstOccurrenceDateTime())
+                    .isBefore(ZonedDateTime.parse(that.firstOccurrenceDateTime())) ? firstOccurrenceDateTime()
+                            : that.firstOccurrenceDateTime();
+            return of(latest, occurrences, firstDateTime, builds);
+        }
+
+        private int untrackedOccurrences() {
+            return occurrenceCount() - latestBuilds().size();
+        }
+
+        private boolean hasOverlappingUntrackedOccurrences(FlakyRunFlake that) {
+            if (untrackedOccurrences() <= 0 || that.untrackedOccurrences() <= 0) {
+                return false;
+            }
+            // untracked occurrences happened between the first occurrence and the oldest tracked build
+            var thisOldestBuild = ZonedDateTime.parse(builds.get(builds.size() - 1).dateTime());
+            var thatOldestBuild = ZonedDateTime.parse(that.builds().get(that.builds().size() - 1).dateTime());
+            return !ZonedDateTime.parse(firstOccurrenceDateTime()).isAfter(thatOldestBuild)
+                    && !ZonedDateTime.parse(that.firstOccurrenceDateTime()).isAfter(thisOldestBuild);
+        }
+
+        /**
+         * @return flake without occurrences older than the date time or null when there are no newer occurrences
+         */
+        public FlakyRunFlake withoutOccurrencesBefore(ZonedDateTime dateTime) {
+            if (!ZonedDateTime.parse(dateTime()).isAfter(dateTime)) {
+                return null;
+            }
+            if (builds == null || ZonedDateTime.parse(firstOccurrenceDateTime()).isAfter(dateTime)) {
+                return this;
+            }
+            var newerBuilds = builds.stream().filter(b -> ZonedDateTime.parse(b.dateTime()).isAfter(dateTime)).toList();
+            if (newerBuilds.isEmpty() || newerBuilds.size() == builds.size()) {
+                // older occurrences are not tracked, we can't tell how many of them are expired
+                return this;
+            }
+            // builds are the latest occurrences, therefore all the untracked occurrences are expired as well
+            var firstDateTime = newerBuilds.get(newerBuilds.size() - 1).dateTime();
+            return of(this, newerBuilds.size(), firstDateTime, newerBuilds);
+        }
+
+        private static FlakyRunFlake of(FlakyRunFlake latest, int occurrences, String firstDateTime,
+                List<FlakyRunBuild> builds) {
+            if (occurrences <= 1) {
+                return new FlakyRunFlake(latest.failureMessage(), latest.failureType(), latest.failureStackTrace(),
+                        latest.dateTime(), latest.ciJobName(), latest.ciBuildNumber(), latest.rerun());
+            }
+            return new FlakyRunFlake(latest.failureMessage(), latest.failureType(), latest.failureStackTrace(),
+                    latest.dateTime(), latest.ciJobName(), latest.ciBuildNumber(), occurrences, firstDateTime, builds,
+                    latest.rerun());
+        }
+    }
+
+    /**
+     * Occurrence of an aggregated flake.
+     */
+    public record FlakyRunBuild(String dateTime, String ciJobName, String ciBuildNumber,
+            @JsonInclude(JsonInclude.Include.NON_NULL) Integer rerun) {
+
+        public FlakyRunBuild(String dateTime, String ciJobName, String ciBuildNumber) {
+            this(dateTime, ciJobName, ciBuildNumber, null);
+        }
+
+        /**
+         * @return key of the occurrence, the same occurrence can be added by different jobs, but it has the same date
+         *         time and rerun index
+         */
+        public FlakyRunOccurrenceKey toOccurrenceKey() {
+            return new FlakyRunOccurrenceKey(dateTime, rerun);
+        }
+    }
+
+    public record FlakyRunOccurrenceKey(String dateTime, Integer rerun) {
     }
 }
@@ -0,0 +1,392 @@
+package io.quarkus.qe.reporter.flakyrun.summary;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.quarkus.qe.reporter.flakyrun.reporter.FlakyRunReport;
+import io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummary.FlakyRunFlake;
+import io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummary.FlakyRunProjectSummary;
+import io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummary.FlakyRunSummaryMetadata;
+import io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryReporter.NewReport;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static io.quarkus.qe.reporter.flakyrun.FlakyReporterUtils.isArgument;
+import static io.quarkus.qe.reporter.flakyrun.FlakyReporterUtils.parseIntArgument;
+import static io.quarkus.qe.reporter.flakyrun.FlakyReporterUtils.toDigest;
+import static io.quarkus.qe.reporter.flakyrun.reporter.FlakyRunReporter.parseFlakyTestsReport;
+import static io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryReporter.CI_BUILD_NUMBER;
+import static io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryReporter.CI_JOB_NAME;
+import static io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryReporter.isAlreadyIngested;
+import static io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryReporter.parsePreviousSummary;
+import static io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryReporter.toNewProjectSummaries;
+import static io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryReporter.toProjectSummaries;
+import static io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryReporter.toSummaryIndexPath;
+import static io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryReporter.writeSummaryFile;
+
+/**
+ * Long-running local service that keeps the flaky run summary in memory, so that CI agents on the same host can submit
+ * flaky run reports without paying JVM startup and summary (de)serialization for every report. The summary is
+ * periodically snapshotted to the new summary report path. Server is only bound to the loopback address.
+ */
+public final class FlakyRunSummaryDaemon implements Closeable {
+
+    public static final String PORT = "port";
+    public static final String SNAPSHOT_INTERVAL_SECONDS = "snapshot-interval-seconds";
+    public static final String MAX_REPORT_SIZE_KB = "max-report-size-kb";
+    public static final String REPORTS_PATH = "/reports";
+    public static final String SUMMARY_PATH = "/summary";
+    public static final String STATS_PATH = "/stats";
+    public static final String SNAPSHOT_PATH = "/snapshot";
+    public static final String SHUTDOWN_PATH = "/shutdown";
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final String GET = "GET";
+    private static final String POST = "POST";
+    private final FlakyRunSummaryReporter summaryReporter;
+    private final int port;
+    private final int snapshotIntervalSeconds;
+    private final int maxReportSizeBytes;
+    private final Object snapshotLock = new Object();
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    private HttpServer server;
+    private ExecutorService requestExecutor;
+    private ScheduledExecutorService snapshotExecutor;
+    // projects are kept in a map, so that a new report is only merged into the projects it touches
+    private Map<ProjectKey, FlakyRunProjectSummary> projects;
+    private FlakyRunSummaryMetadata metadata;
+    private long tests = 0;
+    private long flakes = 0;
+    private long ingestedReports = 0;
+    private boolean dirty = false;
+
+    private record ProjectKey(String projectName, String projectBaseDir) {
+
+        private static ProjectKey of(FlakyRunProjectSummary projectSummary) {
+            return new ProjectKey(projectSummary.projectName(), projectSummary.projectBaseDir());
+        }
+    }
+
+    public FlakyRunSummaryDaemon(String[] args) {
+        int port = 8787;
+        int snapshotIntervalSeconds = 60;
+        int maxReportSizeKb = 32 * 1024;
+        for (String arg : args) {
+            if (isArgument(PORT, arg)) {
+                port = parseIntArgument(PORT, arg);
+            }
+            if (isArgument(SNAPSHOT_INTERVAL_SECONDS, arg)) {
+                snapshotIntervalSeconds = parseIntArgument(SNAPSHOT_INTERVAL_SECONDS, arg);
+            }
+            if (isArgument(MAX_REPORT_SIZE_KB, arg)) {
+                maxReportSizeKb = parseIntArgument(MAX_REPORT_SIZE_KB, arg);
+            }
+        }
+        this.port = port;
+        this.snapshotIntervalSeconds = snapshotIntervalSeconds;
+        this.maxReportSizeBytes = maxReportSizeKb * 1024;
+        this.summaryReporter = new FlakyRunSummaryReporter(args);
+    }
+
+    public void start() {
+        var previousSummary = parsePreviousSummary(summaryReporter.getPreviousSummaryReportPath());
+        // ingested reports must survive restarts, otherwise reports re-sent after the restart are counted twice
+        this.metadata = previousSummary == null ? null : previousSummary.metadata();
+        this.projects = new HashMap<>();
+        toProjectSummaries(previousSummary).forEach(project -> putProject(ProjectKey.of(project), project));
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        server.createContext(REPORTS_PATH, exchange -> handle(exchange, POST, this::ingestReport));
+        server.createContext(SUMMARY_PATH, exchange -> handle(exchange, GET, ex -> getSummary()));
+        server.createContext(STATS_PATH, exchange -> handle(exchange, GET, ex -> getStats()));
+        server.createContext(SNAPSHOT_PATH,
+                exchange -> handle(exchange, POST, ex -> Map.of("snapshot", snapshotOrThrow())));
+        server.createContext(SHUTDOWN_PATH, exchange -> handle(exchange, POST, ex -> {
+            // respond first, stop afterward so that the client is not left without a response
+            requestExecutor.execute(this::close);
+            return Map.of("shutdown", true);
+        }));
+        requestExecutor = Executors.newFixedThreadPool(2);
+        server.setExecutor(requestExecutor);
+        server.start();
+        snapshotExecutor = Executors.newSingleThreadScheduledExecutor();
+        if (snapshotIntervalSeconds > 0) {
+            snapshotExecutor.scheduleWithFixedDelay(this::snapshot, snapshotIntervalSeconds, snapshotIntervalSeconds,
+                    TimeUnit.SECONDS);
+        }
+        System.out.printf("Flaky run summary daemon is listening on %s%n", getUri());
+    }
+
+    /**
+     * Blocks until the daemon is stopped, either with the shutdown request or the JVM shutdown.
+     */
+    public void awaitShutdown() {
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close));
+        try {
+            stopped.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * @return URI of the address the daemon is bound to
+     */
+    public URI getUri() {
+        try {
+            return new URI("http", null, server.getAddress().getHostString(), getPort(), null, null, null);
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (stopped.getCount() == 0) {
+            return;
+        }
+        synchronized (snapshotLock) {
+            if (stopped.getCount() == 0) {
+                return;
+            }
+            // the daemon may be closed before it was (successfully) started
+            if (server != null) {
+                server.stop(0);
+            }
+            if (snapshotExecutor != null) {
+                snapshotExecutor.shutdownNow();
+            }
+            if (requestExecutor != null) {
+                requestExecutor.shutdown();
+            }
+            if (projects != null) {
+                snapshot();
+            }
+            stopped.countDown();
+        }
+    }
+
+    private Object ingestReport(HttpExchange exchange) throws IOException {
+        var contentLength = exchange.getRequestHeaders().getFirst("Content-Length");
+        if (contentLength != null && parseContentLength(contentLength) > maxReportSizeBytes) {
+            throw new ClientErrorException(413, "Report is larger than " + maxReportSizeBytes + " bytes");
+        }
+        byte[] report;
+        try (var body = exchange.getRequestBody()) {
+            // chunked requests have no content length
+            report = body.readNBytes(maxReportSizeBytes + 1);
+        }
+        if (report.length > maxReportSizeBytes) {
+            throw new ClientErrorException(413, "Report is larger than " + maxReportSizeBytes + " bytes");
+        }
+        final Map<String, String> queryParams;
+        final FlakyRunReport flakyRunReport;
+        try {
+            queryParams = parseQueryParams(exchange.getRequestURI().getRawQuery());
+            flakyRunReport = new FlakyRunReport(null, toDigest(report), parseFlakyTestsReport(report));
+        } catch (RuntimeException e) {
+            throw new ClientErrorException(400, "Invalid flaky run report: " + e.getMessage());
+        }
+        var newReport = new NewReport(flakyRunReport, queryParams.getOrDefault(CI_JOB_NAME, ""),
+                queryParams.getOrDefault(CI_BUILD_NUMBER, "-1"));
+        var flakyTests = newReport.report().flakyTests();
+        if (!flakyTests.isEmpty()) {
+            var newProjects = toNewProjectSummaries(List.of(newReport)).stream()
+                    .collect(Collectors.groupingBy(ProjectKey::of));
+            synchronized (this) {
+                if (isAlreadyIngested(metadata, newReport)) {
+                    return Map.of("ingestedFlakes", 0, "alreadyIngested", true);
+                }
+                // only the projects with new flakes are merged, so ingestion doesn't slow down as the summary grows
+                newProjects.forEach((projectKey, newProjectSummaries) -> putProject(projectKey,
+                        summaryReporter.mergeProjectSummary(projects.get(projectKey), newProjectSummaries)));
+                metadata = summaryReporter.addIngestedReports(metadata, List.of(newReport));
+                ingestedReports++;
+                dirty = true;
+            }
+        }
+        return Map.of("ingestedFlakes", flakyTests.size(), "alreadyIngested", false);
+    }
+
+    private synchronized FlakyRunSummary getSummary() {
+        return new FlakyRunSummary(metadata,
+                projects.values().stream().sorted(FlakyRunSummaryReporter.PROJECT_ORDER).toList());
+    }
+
+    private synchronized Map<String, Object> getStats() {
+        var stats = new LinkedHashMap<String, Object>();
+        stats.put("projects", projects.size());
+        stats.put("tests", tests);
+        stats.put("flakes", flakes);
+        stats.put("ingestedReports", ingestedReports);
+        return stats;
+    }
+
+    /**
+     * Replaces the project summary and updates test and flake counts, so that stats don't iterate the summary.
+     */
+    private void putProject(ProjectKey projectKey, FlakyRunProjectSummary projectSummary) {
+        var previousProjectSummary = projects.put(projectKey, projectSummary);
+        if (previousProjectSummary != null) {
+            tests -= countTests(previousProjectSummary);
+            flakes -= countFlakes(previousProjectSummary);
+        }
+        tests += countTests(projectSummary);
+        flakes += countFlakes(projectSummary);
+    }
+
+    private static int countTests(FlakyRunProjectSummary projectSummary) {
+        return projectSummary.flakeTests() == null ? 0 : projectSummary.flakeTests().size();
+    }
+
+    private static long countFlakes(FlakyRunProjectSummary projectSummary) {
+        if (projectSummary.flakeTests() == null) {
+            return 0;
+        }
+        return projectSummary.flakeTests().stream().filter(t -> t.flakes() != null).flatMap(t -> t.flakes().stream())
+                .mapToLong(FlakyRunFlake::occurrenceCount).sum();
+    }
+
+    /**
+     * Periodic and final snapshots only log failures, the snapshot is retried later.
+     *
+     * @return true if there was something to write
+     */
+    private boolean snapshot() {
+        try {
+            return snapshotOrThrow();
+        } catch (UncheckedIOException e) {
+            System.err.printf("Unable to snapshot summary to '%s': %s%n", summaryReporter.getNewSummaryReportPath(),
+                    e.getCause());
+            return false;
+        }
+    }
+
+    /**
+     * Writes the summary to a temporary file and then moves it, so that readers never see a partial summary.
+     *
+     * @return true if there was something to write
+     */
+    private boolean snapshotOrThrow() {
+        synchronized (snapshotLock) {
+            final FlakyRunSummary summary;
+            synchronized (this) {
+                if (!dirty) {
+                    return false;
+                }
+                // ingestion only applies day retention to touched projects, snapshot applies it to all of them
+                List.copyOf(projects.entrySet()).forEach(
+                        e -> putProject(e.getKey(), summaryReporter.mergeProjectSummary(e.getValue(), List.of())));
+                summary = getSummary();
+                dirty = false;
+            }
+            Path newSummaryReportPath = summaryReporter.getNewSummaryReportPath().toAbsolutePath();
+            Path tempSummaryPath = newSummaryReportPath.resolveSibling(newSummaryReportPath.getFileName() + ".tmp");
+            try {
+                writeSummaryFile(summary, tempSummaryPath);
+                Files.move(tempSummaryPath, newSummaryReportPath, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                synchronized (this) {
+                    dirty = true;
+                }
+                throw new UncheckedIOException(e);
+            }
+            FlakySummaryIndex.of(summary).write(toSummaryIndexPath(newSummaryReportPath));
+            return true;
+        }
+    }
+
+    private static void handle(HttpExchange exchange, String expectedMethod, RequestHandler handler)
+            throws IOException {
+        try (exchange) {
+            if (!expectedMethod.equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] response;
+            int status;
+            try {
+                response = OBJECT_MAPPER.writeValueAsBytes(handler.handle(exchange));
+                status = 200;
+            } catch (ClientErrorException e) {
+                response = OBJECT_MAPPER.writeValueAsBytes(Map.of("error", String.valueOf(e.getMessage())));
+                status = e.status;
+            } catch (Exception e) {
+                response = OBJECT_MAPPER.writeValueAsBytes(Map.of("error", String.valueOf(e)));
+                status = 500;
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, response.length);
+            exchange.getResponseBody().write(response);
+        }
+    }
+
+    private static long parseContentLength(String contentLength) {
+        try {
+            return Long.parseLong(contentLength.trim());
+        } catch (NumberFormatException e) {
+            throw new ClientErrorException(400, "Invalid Content-Length header '" + contentLength + "'");
+        }
+    }
+
+    private static Map<String, String> parseQueryParams(String rawQuery) {
+        Map<String, String> result = new HashMap<>();
+        if (rawQuery != null && !rawQuery.isEmpty()) {
+            for (String param : rawQuery.split("&")) {
+                int separator = param.indexOf('=');
+                if (separator > 0) {
+                    result.put(URLDecoder.decode(param.substring(0, separator), StandardCharsets.UTF_8),
+                            URLDecoder.decode(param.substring(separator + 1), StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return result;
+    }
+
+    @FunctionalInterface
+    private interface RequestHandler {
+        Object handle(HttpExchange exchange) throws Exception;
+    }
+
+    /**
+     * Invalid requests, other failures are server errors.
+     */
+    private static final class ClientErrorException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+        private final int status;
+
+        private ClientErrorException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+}
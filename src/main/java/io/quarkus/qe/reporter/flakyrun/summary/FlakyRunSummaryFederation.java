@@ -0,0 +1,398 @@
+package io.quarkus.qe.reporter.flakyrun.summary;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummary.FlakyRunFlake;
+import io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummary.FlakyRunIngestedReport;
+import io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummary.FlakyRunSummaryMetadata;
+import io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummary.FlakyRunTestSummary;
+import io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryReader.SummaryTest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import static io.quarkus.qe.reporter.flakyrun.FlakyReporterUtils.getRequiredArgument;
+import static io.quarkus.qe.reporter.flakyrun.FlakyReporterUtils.isArgument;
+import static io.quarkus.qe.reporter.flakyrun.FlakyReporterUtils.parseIntArgument;
+import static io.quarkus.qe.reporter.flakyrun.FlakyReporterUtils.parseStringArgument;
+import static io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryReader.SUMMARY_TEST_ORDER;
+import static io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryReporter.DAY_RETENTION;
+import static io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryReporter.FLAKY_SUMMARY_REPORT;
+import static io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryReporter.MAX_FLAKES_PER_TEST;
+import static io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryReporter.MAX_INGESTED_REPORTS;
+import static io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryReporter.NEW_SUMMARY_REPORT_PATH;
+import static io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryReporter.toSummaryIndexPath;
+
+/**
+ * Merges multiple flaky run summaries (e.g. from different repositories or branches) into one. Summaries are streamed
+ * and merged test by test, so that at most one test per merged summary is kept in memory. Summaries not written in the
+ * {@link FlakyRunSummaryReporter#PROJECT_ORDER} are detected while they are merged, then they are split into sorted
+ * runs of at most {@link #MAX_TESTS_IN_MEMORY} tests and the merge starts over with the runs instead.
+ */
+public final class FlakyRunSummaryFederation {
+
+    public static final String SUMMARY_REPORT_PATHS = "summary-report-paths";
+    public static final String MAX_TESTS_IN_MEMORY = "max-tests-in-memory";
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final List<Path> summaryReportPaths;
+    private final Path newSummaryReportPath;
+    private final int dayRetention;
+    private final int maxFlakesPerTest;
+    private final int maxTestsInMemory;
+
+    public FlakyRunSummaryFederation(String[] args) {
+        int dayRetention = 30;
+        int maxFlakesPerTest = 50;
+        int maxTestsInMemory = 10_000;
+        Path newSummaryReportPath = Path.of(FLAKY_SUMMARY_REPORT);
+        for (String arg : args) {
+            if (isArgument(DAY_RETENTION, arg)) {
+                dayRetention = parseIntArgument(DAY_RETENTION, arg);
+            }
+            if (isArgument(MAX_FLAKES_PER_TEST, arg)) {
+                maxFlakesPerTest = parseIntArgument(MAX_FLAKES_PER_TEST, arg);
+            }
+            if (isArgument(MAX_TESTS_IN_MEMORY, arg)) {
+                maxTestsInMemory = parseIntArgument(MAX_TESTS_IN_MEMORY, arg);
+            }
+            if (isArgument(NEW_SUMMARY_REPORT_PATH, arg)) {
+                newSummaryReportPath = Path.of(parseStringArgument(NEW_SUMMARY_REPORT_PATH, arg));
+            }
+        }
+        this.summaryReportPaths = Arrays.stream(getRequiredArgument(SUMMARY_REPORT_PATHS, args).split(","))
+                .map(String::trim).filter(p -> !p.isEmpty()).map(Path::of).toList();
+        this.newSummaryReportPath = newSummaryReportPath;
+        this.dayRetention = dayRetention;
+        this.maxFlakesPerTest = maxFlakesPerTest;
+        this.maxTestsInMemory = maxTestsInMemory;
+    }
+
+    public void merge() {
+        for (Path summaryReportPath : summaryReportPaths) {
+            if (!Files.isRegularFile(summaryReportPath)) {
+                throw new IllegalArgumentException("Summary '" + summaryReportPath + "' does not exist");
+            }
+        }
+        Path runsDir = null;
+        try {
+            Map<Path, List<Path>> summaryToSortedRuns = new HashMap<>();
+            while (true) {
+                try {
+                    merge(summaryToSortedRuns);
+                    return;
+                } catch (UnsortedSummaryException e) {
+                    // summaries created before projects were sorted, the merged summary is only a temp file so far
+                    System.err.printf("Summary '%s' is not sorted and will be split into sorted runs%n", e.summaryPath);
+                    if (runsDir == null) {
+                        runsDir = Files.createTempDirectory("flaky-summary-runs");
+                    }
+                    summaryToSortedRuns.put(e.summaryPath, splitIntoSortedRuns(e.summaryPath, runsDir));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            deleteRuns(runsDir);
+        }
+    }
+
+    /**
+     * @param summaryToSortedRuns
+     *            sorted runs that replace unsorted summaries
+     */
+    private void merge(Map<Path, List<Path>> summaryToSortedRuns) {
+        var dayRetentionDateTime = ZonedDateTime.now().minusDays(dayRetention);
+        var absoluteSummaryPath = newSummaryReportPath.toAbsolutePath();
+        // new summary can replace one of the merged summaries, which are read until the very end
+        var tempSummaryPath = absoluteSummaryPath.resolveSibling(absoluteSummaryPath.getFileName() + ".tmp");
+        var readers = new ArrayList<FlakyRunSummaryReader>();
+        Map<Long, Integer> testNameHashToFlakes = new HashMap<>();
+        try (var generator = OBJECT_MAPPER.createGenerator(tempSummaryPath.toFile(), JsonEncoding.UTF8)) {
+            var summaryCursors = new PriorityQueue<SummaryCursor>(
+                    Comparator.comparing(SummaryCursor::current, SUMMARY_TEST_ORDER));
+            for (Path summaryReportPath : summaryReportPaths) {
+                var summaryPaths = summaryToSortedRuns.getOrDefault(summaryReportPath, List.of(summaryReportPath));
+                for (Path summaryPath : summaryPaths) {
+                    var reader = FlakyRunSummaryReader.open(summaryPath);
+                    readers.add(reader);
+                    var summaryTests = new SortedSummaryTests(summaryReportPath, reader);
+                    if (summaryTests.hasNext()) {
+                        summaryCursors.add(new SummaryCursor(summaryTests, summaryTests.next()));
+                    }
+                }
+            }
+            generator.writeStartObject();
+            var metadata = mergeMetadata(dayRetentionDateTime);
+            if (metadata != null) {
+                generator.writeObjectField("metadata", metadata);
+            }
+            generator.writeArrayFieldStart("flakyProjects");
+            SummaryTest currentProject = null;
+            while (!summaryCursors.isEmpty()) {
+                // take the same test from all the summaries
+                var test = summaryCursors.peek().current();
+                var testFlakes = new ArrayList<List<FlakyRunFlake>>();
+                while (!summaryCursors.isEmpty()
+                        && SUMMARY_TEST_ORDER.compare(summaryCursors.peek().current(), test) == 0) {
+                    var summaryCursor = summaryCursors.poll();
+                    if (summaryCursor.current().testSummary().flakes() != null) {
+                        testFlakes.add(summaryCursor.current().testSummary().flakes());
+                    }
+                    if (summaryCursor.next()) {
+                        summaryCursors.add(summaryCursor);
+                    }
+                }
+                var flakes = mergeFlakes(testFlakes, dayRetentionDateTime);
+                if (flakes.isEmpty()) {
+                    continue;
+                }
+                if (currentProject == null || !Objects.equals(currentProject.projectName(), test.projectName())
+                        || !Objects.equals(currentProject.projectBaseDir(), test.projectBaseDir())) {
+                    if (currentProject != null) {
+                        writeProjectEnd(generator);
+                    }
+                    writeProjectStart(generator, test);
+                    currentProject = test;
+                }
+                var fullTestName = test.testSummary().fullTestName();
+                generator.writeObject(new FlakyRunTestSummary(fullTestName, flakes));
+                testNameHashToFlakes.merge(FlakySummaryIndex.hash(fullTestName),
+                        flakes.stream().mapToInt(FlakyRunFlake::occurrenceCount).sum(), Integer::sum);
+            }
+            if (currentProject != null) {
+                writeProjectEnd(generator);
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            readers.forEach(FlakyRunSummaryReader::close);
+        }
+        try {
+            Files.move(tempSummaryPath, absoluteSummaryPath, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        FlakySummaryIndex.of(testNameHashToFlakes).write(toSummaryIndexPath(absoluteSummaryPath));
+    }
+
+    /**
+     * Streams the summary once and writes its tests into sorted summaries of at most max tests in memory, so that
+     * unsorted summaries are merged without loading them into memory.
+     */
+    private List<Path> splitIntoSortedRuns(Path summaryPath, Path runsDir) throws IOException {
+        var sortedRuns = new ArrayList<Path>();
+        var tests = new ArrayList<SummaryTest>();
+        try (var reader = FlakyRunSummaryReader.open(summaryPath)) {
+            while (reader.hasNext()) {
+                tests.add(reader.next());
+                if (tests.size() >= maxTestsInMemory || !reader.hasNext()) {
+                    var sortedRun = runsDir.resolve("run-" + sortedRuns.size() + "-" + summaryPath.getFileName());
+                    writeSortedRun(sortedRun, tests);
+                    sortedRuns.add(sortedRun);
+                    tests.clear();
+                }
+            }
+        }
+        return sortedRuns;
+    }
+
+    private static void writeSortedRun(Path sortedRun, List<SummaryTest> tests) throws IOException {
+        tests.sort(SUMMARY_TEST_ORDER);
+        try (var generator = OBJECT_MAPPER.createGenerator(sortedRun.toFile(), JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("flakyProjects");
+            SummaryTest currentProject = null;
+            for (SummaryTest test : tests) {
+                if (currentProject == null || !Objects.equals(currentProject.projectName(), test.projectName())
+                        || !Objects.equals(currentProject.projectBaseDir(), test.projectBaseDir())) {
+                    if (currentProject != null) {
+                        writeProjectEnd(generator);
+                    }
+                    writeProjectStart(generator, test);
+                    currentProject = test;
+                }
+                generator.writeObject(test.testSummary());
+            }
+            if (currentProject != null) {
+                writeProjectEnd(generator);
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+
+    private static void deleteRuns(Path runsDir) {
+        if (runsDir == null) {
+            return;
+        }
+        try (var runs = Files.list(runsDir)) {
+            for (Path run : runs.toList()) {
+                Files.deleteIfExists(run);
+            }
+            Files.deleteIfExists(runsDir);
+        } catch (IOException e) {
+            System.err.printf("Failed to delete temporary directory '%s': %s%n", runsDir, e.getMessage());
+        }
+    }
+
+    /**
+     * Merges flakes of one test, each list is sorted from the newest flake, and so is the result. Occurrences of the
+     * same failure are aggregated.
+     */
+    private List<FlakyRunFlake> mergeFlakes(List<List<FlakyRunFlake>> testFlakes, ZonedDateTime dayRetentionDateTime) {
+        record FlakeCursor(List<FlakyRunFlake> flakes, int index, ZonedDateTime dateTime) {
+            FlakeCursor(List<FlakyRunFlake> flakes, int index) {
+                this(flakes, index, ZonedDateTime.parse(flakes.get(index).dateTime()));
+            }
+        }
+        record FlakeKey(String failureMessage, String failureType, String failureStackTrace) {
+        }
+        var newestFirst = new PriorityQueue<>(Comparator.comparing(FlakeCursor::dateTime).reversed());
+        for (List<FlakyRunFlake> flakes : testFlakes) {
+            if (!flakes.isEmpty()) {
+                newestFirst.add(new FlakeCursor(
+                        isNewestFirst(flakes) ? flakes : flakes.stream().sorted(Comparator.reverseOrder()).toList(),
+                        0));
+            }
+        }
+        Map<FlakeKey, FlakyRunFlake> aggregatedFlakes = new LinkedHashMap<>();
+        while (!newestFirst.isEmpty()) {
+            var flakeCursor = newestFirst.poll();
+            if (!flakeCursor.dateTime().isAfter(dayRetentionDateTime)) {
+                // all the remaining flakes are older
+                break;
+            }
+            var flake = flakeCursor.flakes().get(flakeCursor.index());
+            var flakeKey = new FlakeKey(flake.failureMessage(), flake.failureType(), flake.failureStackTrace());
+            // older occurrences of already kept failures are aggregated, but new failures are only kept up to the max
+            if (aggregatedFlakes.containsKey(flakeKey) || aggregatedFlakes.size() < maxFlakesPerTest) {
+                aggregatedFlakes.merge(flakeKey, flake, FlakyRunFlake::aggregate);
+            }
+            if (flakeCursor.index() + 1 < flakeCursor.flakes().size()) {
+                newestFirst.add(new FlakeCursor(flakeCursor.flakes(), flakeCursor.index() + 1));
+            }
+        }
+        return aggregatedFlakes.values().stream().map(f -> f.withoutOccurrencesBefore(dayRetentionDateTime))
+                .filter(Objects::nonNull).toList();
+    }
+
+    private static boolean isNewestFirst(List<FlakyRunFlake> flakes) {
+        for (int i = 1; i < flakes.size(); i++) {
+            if (flakes.get(i - 1).compareTo(flakes.get(i)) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private FlakyRunSummaryMetadata mergeMetadata(ZonedDateTime dayRetentionDateTime) {
+        record IngestedReportKey(String reportDigest, String ciJobName, String ciBuildNumber) {
+        }
+        Set<IngestedReportKey> uniqueReports = new HashSet<>();
+        var ingestedReports = summaryReportPaths.stream().map(FlakyRunSummaryReporter::parseSummaryMetadata)
+                .filter(m -> m != null && m.ingestedReports() != null).flatMap(m -> m.ingestedReports().stream())
+                .filter(r -> r.dateTime() != null && ZonedDateTime.parse(r.dateTime()).isAfter(dayRetentionDateTime))
+                .sorted(Comparator.comparing((FlakyRunIngestedReport r) -> ZonedDateTime.parse(r.dateTime()))
+                        .reversed())
+                .filter(r -> uniqueReports
+                        .add(new IngestedReportKey(r.reportDigest(), r.ciJobName(), r.ciBuildNumber())))
+                .limit(MAX_INGESTED_REPORTS).toList();
+        return ingestedReports.isEmpty() ? null : new FlakyRunSummaryMetadata(ingestedReports);
+    }
+
+    private static void writeProjectStart(JsonGenerator generator, SummaryTest test) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("projectName", test.projectName());
+        generator.writeStringField("projectBaseDir", test.projectBaseDir());
+        generator.writeArrayFieldStart("flakeTests");
+    }
+
+    private static void writeProjectEnd(JsonGenerator generator) throws IOException {
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    /**
+     * Returns summary tests and fails as soon as a test is not in the expected order.
+     */
+    private static final class SortedSummaryTests implements Iterator<SummaryTest> {
+
+        private final Path summaryPath;
+        private final Iterator<SummaryTest> summaryTests;
+        private SummaryTest previous;
+
+        private SortedSummaryTests(Path summaryPath, Iterator<SummaryTest> summaryTests) {
+            this.summaryPath = summaryPath;
+            this.summaryTests = summaryTests;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return summaryTests.hasNext();
+        }
+
+        @Override
+        public SummaryTest next() {
+            var current = summaryTests.next();
+            if (previous != null && SUMMARY_TEST_ORDER.compare(previous, current) > 0) {
+                throw new UnsortedSummaryException(summaryPath);
+            }
+            previous = current;
+            return current;
+        }
+    }
+
+    private static final class UnsortedSummaryException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+        private final transient Path summaryPath;
+
+        private UnsortedSummaryException(Path summaryPath) {
+            super("Summary '" + summaryPath + "' is not sorted");
+            this.summaryPath = summaryPath;
+        }
+    }
+
+    private static final class SummaryCursor {
+
+        private final Iterator<SummaryTest> summaryTests;
+        private SummaryTest current;
+
+        private SummaryCursor(Iterator<SummaryTest> summaryTests, SummaryTest current) {
+            this.summaryTests = summaryTests;
+            this.current = current;
+        }
+
+        private SummaryTest current() {
+            return current;
+        }
+
+        private boolean next() {
+            if (summaryTests.hasNext()) {
+                current = summaryTests.next();
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package io.quarkus.qe.reporter.flakyrun.summary;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummary.FlakyRunTestSummary;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Streams flaky tests of a summary file one by one, so that only the current test is kept in memory. Tests are returned
+ * in the order they are stored in the summary.
+ */
+public final class FlakyRunSummaryReader implements Iterator<FlakyRunSummaryReader.SummaryTest>, Closeable {
+
+    static final Comparator<SummaryTest> SUMMARY_TEST_ORDER = Comparator
+            .comparing(SummaryTest::projectName, Comparator.nullsFirst(Comparator.<String> naturalOrder()))
+            .thenComparing(SummaryTest::projectBaseDir, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(SummaryTest::testSummary, FlakyRunSummaryReporter.TEST_ORDER);
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final String FLAKY_PROJECTS = "flakyProjects";
+    private static final String PROJECT_NAME = "projectName";
+    private static final String PROJECT_BASE_DIR = "projectBaseDir";
+    private static final String FLAKE_TESTS = "flakeTests";
+    private final JsonParser parser;
+    private State state = State.SUMMARY;
+    private String projectName;
+    private String projectBaseDir;
+    private boolean projectNameRead;
+    private boolean projectBaseDirRead;
+    private SummaryTest next;
+
+    public record SummaryTest(String projectName, String projectBaseDir, FlakyRunTestSummary testSummary) {
+    }
+
+    private enum State {
+        SUMMARY, PROJECTS, PROJECT, TESTS, DONE
+    }
+
+    private FlakyRunSummaryReader(JsonParser parser) {
+        this.parser = parser;
+    }
+
+    public static FlakyRunSummaryReader open(Path summaryPath) {
+        try {
+            var parser = OBJECT_MAPPER.createParser(summaryPath.toFile());
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                parser.close();
+                throw new IllegalStateException("Summary '" + summaryPath + "' is not a JSON object");
+            }
+            return new FlakyRunSummaryReader(parser);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && state != State.DONE) {
+            try {
+                next = readNext();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public SummaryTest next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        var result = next;
+        next = null;
+        return result;
+    }
+
+    @Override
+    public void close() {
+        try {
+            parser.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private SummaryTest readNext() throws IOException {
+        while (true) {
+            var token = parser.nextToken();
+            if (token == null) {
+                state = State.DONE;
+                return null;
+            }
+            switch (state) {
+                case SUMMARY -> {
+                    if (token == JsonToken.END_OBJECT) {
+                        state = State.DONE;
+                        return null;
+                    }
+                    var fieldName = parser.currentName();
+                    if (parser.nextToken() == JsonToken.START_ARRAY && FLAKY_PROJECTS.equals(fieldName)) {
+                        state = State.PROJECTS;
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                case PROJECTS -> {
+                    if (token == JsonToken.END_ARRAY) {
+                        state = State.SUMMARY;
+                    } else if (token == JsonToken.START_OBJECT) {
+                        projectName = null;
+                        projectBaseDir = null;
+                        projectNameRead = false;
+                        projectBaseDirRead = false;
+                        state = State.PROJECT;
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                case PROJECT -> {
+                    if (token == JsonToken.END_OBJECT) {
+                        state = State.PROJECTS;
+                        continue;
+                    }
+                    var fieldName = parser.currentName();
+                    var valueToken = parser.nextToken();
+                    if (PROJECT_NAME.equals(fieldName)) {
+                        projectName = parser.getValueAsString();
+                        projectNameRead = true;
+                    } else if (PROJECT_BASE_DIR.equals(fieldName)) {
+                        projectBaseDir = parser.getValueAsString();
+                        projectBaseDirRead = true;
+                    } else if (FLAKE_TESTS.equals(fieldName) && valueToken == JsonToken.START_ARRAY) {
+                        if (!projectNameRead || !projectBaseDirRead) {
+                            throw new IllegalStateException("Expected project name and base dir before flaky tests");
+                        }
+                        state = State.TESTS;
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                case TESTS -> {
+                    if (token == JsonToken.END_ARRAY) {
+                        state = State.PROJECT;
+                    } else if (token == JsonToken.START_OBJECT) {
+                        var testSummary = parser.readValueAs(FlakyRunTestSummary.class);
+                        return new SummaryTest(projectName, projectBaseDir, testSummary);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                default -> throw new IllegalStateException("Unexpected state " + state);
+            }
+        }
+    }
+}
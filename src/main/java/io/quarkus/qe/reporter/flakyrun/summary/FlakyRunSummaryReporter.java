@@ -1,10 +1,15 @@
 package io.quarkus.qe.reporter.flakyrun.summary;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import io.quarkus.qe.reporter.flakyrun.reporter.FlakyRunReport;
 import io.quarkus.qe.reporter.flakyrun.reporter.FlakyRunReporter;
 import io.quarkus.qe.reporter.flakyrun.reporter.FlakyTest;
+import io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummary.FlakyRunIngestedReport;
 import io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummary.FlakyRunProjectSummary;
+import io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummary.FlakyRunSummaryMetadata;
 
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -14,8 +19,13 @@ import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static io.quarkus.qe.reporter.flakyrun.FlakyReporterUtils.isArgument;
 import static io.quarkus.qe.reporter.flakyrun.FlakyReporterUtils.parseIntArgument;
@@ -26,14 +36,24 @@ public class FlakyRunSummaryReporter {
     public static final String TEST_BASE_DIR = FlakyRunSummaryReporter.class.getSimpleName() + ".test-base-dir";
     public static final String FLAKY_SUMMARY_REPORT = "flaky-summary-report.json";
     public static final String CI_BUILD_NUMBER = "flaky-report-ci-build-number";
+    public static final String CI_JOB_NAME = "flaky-report-ci-job-name";
     public static final String DAY_RETENTION = "day-retention";
+    public static final String SUMMARY_SHARDS_DIR = "summary-shards-dir";
     private static final Path CURRENT_DIR = Path.of(".");
     private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
-    private static final String MAX_FLAKES_PER_TEST = "max-flakes-per-test";
+    public static final String MAX_FLAKES_PER_TEST = "max-flakes-per-test";
+    public static final String NEW_SUMMARY_REPORT_PATH = "new-summary-report-path";
+    public static final String SUMMARY_REPORT_PATH = "summary-report-path";
+    // projects and tests are written in this order, so that summaries can be merged without loading them
+    static final Comparator<FlakyRunProjectSummary> PROJECT_ORDER = Comparator
+            .comparing(FlakyRunProjectSummary::projectName, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(FlakyRunProjectSummary::projectBaseDir, Comparator.nullsFirst(Comparator.naturalOrder()));
+    static final Comparator<FlakyRunSummary.FlakyRunTestSummary> TEST_ORDER = Comparator.comparing(
+            FlakyRunSummary.FlakyRunTestSummary::fullTestName, Comparator.nullsFirst(Comparator.naturalOrder()));
+    static final int MAX_INGESTED_REPORTS = 500;
     private static final String PREVIOUS_SUMMARY_REPORT_PATH = "previous-summary-report-path";
-    private static final String NEW_SUMMARY_REPORT_PATH = "new-summary-report-path";
     private static final String NEW_FLAKY_REPORT_PATH = "new-flaky-report-path";
-    private static final String CI_JOB_NAME = "flaky-report-ci-job-name";
+    private static final String METADATA = "metadata";
     private final int dayRetention;
     private final int maxFlakesPerTest;
     private final Path newBuildReportPath;
@@ -41,6 +61,13 @@ public class FlakyRunSummaryReporter {
     private final String ciJobName;
     private final int ciJobBuildNumber;
     private final Path newSummaryReportPath;
+    private final Path summaryShardsDir;
+
+    /**
+     * Flaky run report that should be added to the summary.
+     */
+    record NewReport(FlakyRunReport report, String ciJobName, String ciBuildNumber) {
+    }
 
     public FlakyRunSummaryReporter(String[] args) {
         int dayRetention = 30;
@@ -56,6 +83,7 @@ public class FlakyRunSummaryReporter {
         Path newSummaryReportPath = baseDir.resolve(FLAKY_SUMMARY_REPORT);
         String ciJobName = "";
         int ciJobBuildNumber = -1;
+        Path summaryShardsDir = null;
         for (String arg : args) {
             if (isArgument(DAY_RETENTION, arg)) {
                 dayRetention = parseIntArgument(DAY_RETENTION, arg);
@@ -78,6 +106,9 @@ public class FlakyRunSummaryReporter {
             if (isArgument(NEW_SUMMARY_REPORT_PATH, arg)) {
                 newSummaryReportPath = Path.of(parseStringArgument(NEW_SUMMARY_REPORT_PATH, arg));
             }
+            if (isArgument(SUMMARY_SHARDS_DIR, arg)) {
+                summaryShardsDir = Path.of(parseStringArgument(SUMMARY_SHARDS_DIR, arg));
+            }
         }
         this.dayRetention = dayRetention;
         this.maxFlakesPerTest = maxFlakesPerTest;
@@ -86,46 +117,226 @@ public class FlakyRunSummaryReporter {
         this.ciJobName = ciJobName;
         this.ciJobBuildNumber = ciJobBuildNumber;
         this.newSummaryReportPath = newSummaryReportPath;
+        this.summaryShardsDir = summaryShardsDir;
     }
 
     public void createReport() {
-        List<FlakyTest> flakyTests = FlakyRunReporter.parseFlakyTestsReport(newBuildReportPath);
-        if (!flakyTests.isEmpty()) {
-            var previousSummaries = toProjectSummaries(parsePreviousSummary(previousSummaryReportPath));
-            var newSummary = createNewSummary(previousSummaries, flakyTests);
-            saveSummaryToFileSystem(newSummary);
+        if (Files.exists(newBuildReportPath)) {
+            createReport(List.of(FlakyRunReport.parse(newBuildReportPath)), fileName -> ciJobName);
+        }
+    }
+
+    /**
+     * Adds already parsed flaky run reports to the summary, the summary is read and written only once.
+     *
+     * @param fileNameToCiJobName
+     *            resolves the CI job name when the job name argument is not set
+     */
+    public void createReport(List<FlakyRunReport> flakyRunReports, Function<String, String> fileNameToCiJobName) {
+        var newReports = toNewReports(flakyRunReports, fileNameToCiJobName);
+        if (newReports.isEmpty()) {
+            return;
         }
+        if (summaryShardsDir != null) {
+            createShardedReport(newReports);
+        } else {
+            // CI retries often add the same report again, avoid parsing and rewriting the whole summary for nothing
+            newReports = skipAlreadyIngested(newReports, parseSummaryMetadata(previousSummaryReportPath));
+            if (!newReports.isEmpty()) {
+                var previousSummary = parsePreviousSummary(previousSummaryReportPath);
+                var newSummary = createNewSummary(previousSummary, newReports);
+                saveSummaryToFileSystem(newSummary, newSummaryReportPath);
+            }
+        }
+    }
+
+    /**
+     * Removes flakes of reports that were already added to the summary from the summary index. When a CI job is
+     * retried, its reports were added by the previous attempt, and the result is the index before that attempt.
+     *
+     * @param index
+     *            index of the summary or null
+     */
+    public FlakySummaryIndex withoutIngestedReports(FlakySummaryIndex index, List<FlakyRunReport> flakyRunReports,
+            Function<String, String> fileNameToCiJobName) {
+        var newReports = toNewReports(flakyRunReports, fileNameToCiJobName);
+        if (index == null || newReports.isEmpty()) {
+            return index;
+        }
+        var metadata = summaryShardsDir == null ? parseSummaryMetadata(previousSummaryReportPath)
+                : new FlakyRunSummaryShards(summaryShardsDir).readManifest().metadata();
+        var ingestedReports = newReports.stream().filter(newReport -> isAlreadyIngested(metadata, newReport)).toList();
+        if (ingestedReports.isEmpty()) {
+            return index;
+        }
+        return index.update(toNewProjectSummaries(ingestedReports), List.of());
+    }
+
+    private List<NewReport> toNewReports(List<FlakyRunReport> flakyRunReports,
+            Function<String, String> fileNameToCiJobName) {
+        var ciBuildNumber = Integer.toString(ciJobBuildNumber);
+        return flakyRunReports
+                .stream().filter(r -> !r.flakyTests().isEmpty()).map(r -> new NewReport(r,
+                        ciJobName.isEmpty() ? fileNameToCiJobName.apply(r.fileName()) : ciJobName, ciBuildNumber))
+                .toList();
+    }
+
+    private static List<NewReport> skipAlreadyIngested(List<NewReport> newReports, FlakyRunSummaryMetadata metadata) {
+        return newReports.stream().filter(newReport -> {
+            if (isAlreadyIngested(metadata, newReport)) {
+                // the pipeline can print the GH PR comment to the standard output
+                System.err.printf("Flaky run report '%s' was already added to the summary by job '%s' and build '%s'%n",
+                        newReport.report().fileName(), newReport.ciJobName(), newReport.ciBuildNumber());
+                return false;
+            }
+            return true;
+        }).toList();
+    }
+
+    /**
+     * Only reads and writes shards of projects with new flakes and shards with occurrences older than day retention,
+     * other shards are left untouched.
+     */
+    private void createShardedReport(List<NewReport> newReports) {
+        var shards = new FlakyRunSummaryShards(summaryShardsDir);
+        var manifest = shards.readManifest();
+        newReports = skipAlreadyIngested(newReports, manifest.metadata());
+        if (newReports.isEmpty()) {
+            return;
+        }
+        record ShardChange(FlakyRunSummaryShards.Shard shard, FlakyRunProjectSummary previousProjectSummary,
+                FlakyRunProjectSummary newProjectSummary) {
+        }
+        var changedShards = toNewProjectSummaries(newReports).stream()
+                .collect(groupingBy(p -> FlakyRunSummaryShards.toShardFile(p.projectName(), p.projectBaseDir())))
+                .entrySet().parallelStream().map(shardToProjectSummaries -> {
+                    var previousProjectSummary = shards.readShard(shardToProjectSummaries.getKey());
+                    var newProjectSummary = mergeProjectSummary(previousProjectSummary,
+                            shardToProjectSummaries.getValue());
+                    return new ShardChange(shards.writeShard(newProjectSummary), previousProjectSummary,
+                            newProjectSummary);
+                }).toList();
+        // the manifest knows the oldest occurrence in each shard, so that expired flakes don't stay in shards
+        // that are not touched by new reports
+        var dayRetentionDateTime = ZonedDateTime.now().minusDays(this.dayRetention);
+        var changedShardFiles = changedShards.stream().map(c -> c.shard().shardFile()).collect(Collectors.toSet());
+        var expiredShards = manifest.shards().parallelStream()
+                .filter(shard -> !changedShardFiles.contains(shard.shardFile()))
+                .filter(shard -> shard.isOlderThan(dayRetentionDateTime)).map(shard -> {
+                    var previousProjectSummary = shards.readShard(shard.shardFile());
+                    if (previousProjectSummary == null) {
+                        return null;
+                    }
+                    var newProjectSummary = mergeProjectSummary(previousProjectSummary, List.of());
+                    // shards without expired occurrences are not rewritten, only their manifest entry is updated
+                    var newShard = newProjectSummary.equals(previousProjectSummary)
+                            ? FlakyRunSummaryShards.toShard(newProjectSummary)
+                            : shards.writeShard(newProjectSummary);
+                    return new ShardChange(newShard, previousProjectSummary, newProjectSummary);
+                }).filter(Objects::nonNull).toList();
+        var allChanges = Stream.concat(changedShards.stream(), expiredShards.stream()).toList();
+        shards.updateManifest(manifest, allChanges.stream().map(ShardChange::shard).toList(),
+                addIngestedReports(manifest.metadata(), newReports));
+        shards.updateIndex(
+                allChanges.stream().map(ShardChange::previousProjectSummary).filter(Objects::nonNull).toList(),
+                allChanges.stream().map(ShardChange::newProjectSummary).toList());
+    }
+
+    Path getPreviousSummaryReportPath() {
+        return previousSummaryReportPath;
+    }
+
+    Path getNewSummaryReportPath() {
+        return newSummaryReportPath;
+    }
+
+    /**
+     * Merges new flaky reports into the previous summary, applies day retention and max flakes per test limits. Reports
+     * with digest are recorded in the summary metadata as ingested.
+     */
+    FlakyRunSummary createNewSummary(FlakyRunSummary previousSummary, List<NewReport> newReports) {
+        var projectSummaries = mergeProjectSummaries(toProjectSummaries(previousSummary),
+                toNewProjectSummaries(newReports));
+        var previousMetadata = previousSummary == null ? null : previousSummary.metadata();
+        return new FlakyRunSummary(addIngestedReports(previousMetadata, newReports), List.copyOf(projectSummaries));
+    }
+
+    /**
+     * Merges new summaries of one project into its previous summary, day retention and max flakes per test limits are
+     * only applied to this project.
+     *
+     * @param previousProjectSummary
+     *            previous summary of the project or null if the project has no previous flakes
+     */
+    FlakyRunProjectSummary mergeProjectSummary(FlakyRunProjectSummary previousProjectSummary,
+            List<FlakyRunProjectSummary> newProjectSummaries) {
+        var previousProjectSummaries = previousProjectSummary == null ? List.<FlakyRunProjectSummary> of()
+                : List.of(previousProjectSummary);
+        return mergeProjectSummaries(previousProjectSummaries, newProjectSummaries).get(0);
     }
 
-    private FlakyRunSummary createNewSummary(List<FlakyRunProjectSummary> existingProjects,
-            List<FlakyTest> newFlakyTests) {
-        List<FlakyRunProjectSummary> projectSummaries = new ArrayList<>(flakyTestsToSummaries(newFlakyTests));
+    private List<FlakyRunProjectSummary> mergeProjectSummaries(List<FlakyRunProjectSummary> existingProjects,
+            List<FlakyRunProjectSummary> newProjects) {
+        List<FlakyRunProjectSummary> projectSummaries = new ArrayList<>(newProjects);
         if (!existingProjects.isEmpty()) {
             projectSummaries.addAll(existingProjects);
         }
         // if there is one project multiple times, merge the project summaries into one
-        projectSummaries = mergeProjectSummaries(projectSummaries);
-        return new FlakyRunSummary(List.copyOf(projectSummaries));
+        return mergeProjectSummaries(projectSummaries);
+    }
+
+    static List<FlakyRunProjectSummary> toNewProjectSummaries(List<NewReport> newReports) {
+        return newReports.stream().flatMap(newReport -> flakyTestsToSummaries(newReport.report().flakyTests(),
+                newReport.ciJobName(), newReport.ciBuildNumber()).stream()).toList();
     }
 
-    private List<FlakyRunProjectSummary> flakyTestsToSummaries(List<FlakyTest> flakyTests) {
+    private static List<FlakyRunProjectSummary> flakyTestsToSummaries(List<FlakyTest> flakyTests, String ciJobName,
+            String ciBuildNumber) {
         // at this point: one flaky tests == one flaky summary
-        return flakyTests.stream().map(this::createProjectSummaryFromFlakyTest).toList();
+        return flakyTests.stream()
+                .map(flakyTest -> createProjectSummaryFromFlakyTest(flakyTest, ciJobName, ciBuildNumber)).toList();
     }
 
-    private FlakyRunProjectSummary createProjectSummaryFromFlakyTest(FlakyTest flakyTest) {
+    private static FlakyRunProjectSummary createProjectSummaryFromFlakyTest(FlakyTest flakyTest, String ciJobName,
+            String ciBuildNumber) {
         return new FlakyRunProjectSummary(flakyTest.projectName(), flakyTest.projectBaseDir(),
-                createFlakyTestSummaryFromTest(flakyTest));
+                createFlakyTestSummaryFromTest(flakyTest, ciJobName, ciBuildNumber));
     }
 
-    private List<FlakyRunSummary.FlakyRunTestSummary> createFlakyTestSummaryFromTest(FlakyTest flakyTest) {
-        return List.of(
-                new FlakyRunSummary.FlakyRunTestSummary(flakyTest.fullTestName(), createFlakyRunFromTest(flakyTest)));
+    private static List<FlakyRunSummary.FlakyRunTestSummary> createFlakyTestSummaryFromTest(FlakyTest flakyTest,
+            String ciJobName, String ciBuildNumber) {
+        return List.of(new FlakyRunSummary.FlakyRunTestSummary(flakyTest.fullTestName(),
+                createFlakyRunFromTest(flakyTest, ciJobName, ciBuildNumber)));
     }
 
-    private List<FlakyRunSummary.FlakyRunFlake> createFlakyRunFromTest(FlakyTest flakyTest) {
+    private static List<FlakyRunSummary.FlakyRunFlake> createFlakyRunFromTest(FlakyTest flakyTest, String ciJobName,
+            String ciBuildNumber) {
         return List.of(new FlakyRunSummary.FlakyRunFlake(flakyTest.failureMessage(), flakyTest.failureType(),
-                flakyTest.failureStackTrace(), flakyTest.dateTime(), ciJobName, Integer.toString(ciJobBuildNumber)));
+                flakyTest.failureStackTrace(), flakyTest.dateTime(), ciJobName, ciBuildNumber, flakyTest.rerun()));
+    }
+
+    static boolean isAlreadyIngested(FlakyRunSummaryMetadata metadata, NewReport newReport) {
+        if (metadata == null || metadata.ingestedReports() == null) {
+            return false;
+        }
+        return metadata.ingestedReports().stream()
+                .anyMatch(r -> Objects.equals(newReport.report().reportDigest(), r.reportDigest())
+                        && Objects.equals(newReport.ciJobName(), r.ciJobName())
+                        && Objects.equals(newReport.ciBuildNumber(), r.ciBuildNumber()));
+    }
+
+    FlakyRunSummaryMetadata addIngestedReports(FlakyRunSummaryMetadata metadata, List<NewReport> newReports) {
+        var dayRetentionDateTime = ZonedDateTime.now().minusDays(this.dayRetention);
+        var previousReports = metadata == null || metadata.ingestedReports() == null
+                ? List.<FlakyRunIngestedReport> of()
+                : metadata.ingestedReports();
+        var now = ZonedDateTime.now().toString();
+        var ingestedReports = newReports.stream().filter(r -> r.report().reportDigest() != null)
+                .map(r -> new FlakyRunIngestedReport(r.report().reportDigest(), r.ciJobName(), r.ciBuildNumber(), now));
+        // newest first, reports older than day retention can't be merged again anyway as their flakes are gone
+        return new FlakyRunSummaryMetadata(Stream.concat(ingestedReports, previousReports.stream())
+                .filter(r -> r.dateTime() != null && ZonedDateTime.parse(r.dateTime()).isAfter(dayRetentionDateTime))
+                .limit(MAX_INGESTED_REPORTS).toList());
     }
 
     private List<FlakyRunProjectSummary> mergeProjectSummaries(List<FlakyRunProjectSummary> projectSummaries) {
@@ -138,7 +349,7 @@ public class FlakyRunSummaryReporter {
                 .map(entry -> new FlakyRunProjectSummary(entry.getKey().projectName(), entry.getKey().baseDir(),
                         mergeTestSummaries(entry.getValue())))
                 // at this point: projects are grouped by project name
-                .toList();
+                .sorted(PROJECT_ORDER).toList();
     }
 
     private List<FlakyRunSummary.FlakyRunTestSummary> mergeTestSummaries(
@@ -146,26 +357,30 @@ public class FlakyRunSummaryReporter {
         return projectSummaries.stream().map(FlakyRunProjectSummary::flakeTests).flatMap(Collection::stream)
                 .collect(Collectors.groupingBy(FlakyRunSummary.FlakyRunTestSummary::fullTestName, Collectors.toList()))
                 .entrySet().stream()
-                .map(s -> new FlakyRunSummary.FlakyRunTestSummary(s.getKey(), filterTestFlakes(s.getValue()))).toList();
+                .map(s -> new FlakyRunSummary.FlakyRunTestSummary(s.getKey(), filterTestFlakes(s.getValue())))
+                .sorted(TEST_ORDER).toList();
     }
 
     private List<FlakyRunSummary.FlakyRunFlake> filterTestFlakes(
             List<FlakyRunSummary.FlakyRunTestSummary> testSummaries) {
         ZonedDateTime dayRetentionDateTime = ZonedDateTime.now().minusDays(this.dayRetention);
-        return testSummaries.stream().map(FlakyRunSummary.FlakyRunTestSummary::flakes).flatMap(Collection::stream)
-                .map(s -> new FlakyRunSummary.FlakyRunFlake(s.failureMessage(), s.failureType(), s.failureStackTrace(),
-                        s.dateTime(), s.ciJobName(), s.ciBuildNumber()))
+        // repeated occurrences of the same failure are aggregated into one flake, so that they don't push out
+        // different failures once there is max flakes per test
+        record FlakeKey(String failureMessage, String failureType, String failureStackTrace) {
+        }
+        Map<FlakeKey, FlakyRunSummary.FlakyRunFlake> aggregatedFlakes = new LinkedHashMap<>();
+        testSummaries.stream().map(FlakyRunSummary.FlakyRunTestSummary::flakes).flatMap(Collection::stream)
+                .forEach(flake -> aggregatedFlakes.merge(
+                        new FlakeKey(flake.failureMessage(), flake.failureType(), flake.failureStackTrace()), flake,
+                        FlakyRunSummary.FlakyRunFlake::aggregate));
+        return aggregatedFlakes.values().stream().map(flake -> flake.withoutOccurrencesBefore(dayRetentionDateTime))
+                .filter(Objects::nonNull)
                 // flakes sorted in descending order
-                .sorted(new Comparator<FlakyRunSummary.FlakyRunFlake>() {
-                    @Override
-                    public int compare(FlakyRunSummary.FlakyRunFlake o1, FlakyRunSummary.FlakyRunFlake o2) {
-                        return o1.compareTo(o2);
-                    }
-                }.reversed()).limit(maxFlakesPerTest)
-                .filter(flake -> ZonedDateTime.parse(flake.dateTime()).isAfter(dayRetentionDateTime)).toList();
+                .sorted(Comparator.<FlakyRunSummary.FlakyRunFlake> naturalOrder().reversed()).limit(maxFlakesPerTest)
+                .toList();
     }
 
-    private void saveSummaryToFileSystem(FlakyRunSummary summary) {
+    static void saveSummaryToFileSystem(FlakyRunSummary summary, Path newSummaryReportPath) {
         if (Files.exists(newSummaryReportPath)) {
             try {
                 Files.delete(newSummaryReportPath);
@@ -173,14 +388,29 @@ public class FlakyRunSummaryReporter {
                 throw new RuntimeException(e);
             }
         }
-        try (FileOutputStream file = new FileOutputStream(newSummaryReportPath.toFile())) {
-            OBJECT_MAPPER.writeValue(file, summary);
+        try {
+            writeSummaryFile(summary, newSummaryReportPath);
         } catch (Exception e) {
-            System.err.println("Unable to create the %s file: %s" + e);
+            System.err.printf("Unable to create the %s file: %s%n", newSummaryReportPath, e);
         }
+        // index lets consumers like the GH PR commentator look up tests without parsing the summary
+        FlakySummaryIndex.of(summary).write(toSummaryIndexPath(newSummaryReportPath));
     }
 
-    private static List<FlakyRunProjectSummary> toProjectSummaries(FlakyRunSummary previousSummary) {
+    /**
+     * Writes only the summary file and propagates failures, unlike {@link #saveSummaryToFileSystem}.
+     */
+    static void writeSummaryFile(FlakyRunSummary summary, Path summaryReportPath) throws IOException {
+        try (FileOutputStream file = new FileOutputStream(summaryReportPath.toFile())) {
+            OBJECT_MAPPER.writeValue(file, summary);
+        }
+    }
+
+    static Path toSummaryIndexPath(Path summaryReportPath) {
+        return summaryReportPath.toAbsolutePath().resolveSibling(FlakySummaryIndex.FLAKY_SUMMARY_INDEX);
+    }
+
+    static List<FlakyRunProjectSummary> toProjectSummaries(FlakyRunSummary previousSummary) {
         final List<FlakyRunProjectSummary> flakyProjects;
         if (previousSummary != null && previousSummary.flakyProjects() != null) {
             flakyProjects = List.copyOf(previousSummary.flakyProjects());
@@ -190,7 +420,32 @@ public class FlakyRunSummaryReporter {
         return flakyProjects;
     }
 
-    private static FlakyRunSummary parsePreviousSummary(Path summaryPath) {
+    /**
+     * Reads only summary metadata, which are serialized before the projects, so the projects are not parsed.
+     */
+    static FlakyRunSummaryMetadata parseSummaryMetadata(Path summaryPath) {
+        if (Files.exists(summaryPath) && Files.isRegularFile(summaryPath)) {
+            try (JsonParser parser = OBJECT_MAPPER.createParser(summaryPath.toFile())) {
+                if (parser.nextToken() != JsonToken.START_OBJECT) {
+                    return null;
+                }
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    var fieldName = parser.currentName();
+                    parser.nextToken();
+                    if (METADATA.equals(fieldName)) {
+                        return parser.readValueAs(FlakyRunSummaryMetadata.class);
+                    }
+                    parser.skipChildren();
+                }
+            } catch (IOException e) {
+                // let the full summary parsing report the problem
+                return null;
+            }
+        }
+        return null;
+    }
+
+    static FlakyRunSummary parsePreviousSummary(Path summaryPath) {
         if (Files.exists(summaryPath) && Files.isRegularFile(summaryPath)) {
             try {
                 return OBJECT_MAPPER.readValue(summaryPath.toFile(), FlakyRunSummary.class);
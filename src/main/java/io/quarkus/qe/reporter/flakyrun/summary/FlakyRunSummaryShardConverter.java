@@ -0,0 +1,46 @@
+package io.quarkus.qe.reporter.flakyrun.summary;
+
+import java.nio.file.Path;
+
+import static io.quarkus.qe.reporter.flakyrun.FlakyReporterUtils.getRequiredArgument;
+import static io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryReporter.SUMMARY_REPORT_PATH;
+import static io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryReporter.SUMMARY_SHARDS_DIR;
+import static io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryReporter.parsePreviousSummary;
+import static io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryReporter.saveSummaryToFileSystem;
+import static io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryReporter.toProjectSummaries;
+
+/**
+ * Converts the single-file summary to the sharded summary layout and back.
+ */
+public final class FlakyRunSummaryShardConverter {
+
+    public static final String CONVERSION = "conversion";
+    public static final String TO_SHARDS = "to-shards";
+    public static final String TO_SINGLE_FILE = "to-single-file";
+    private final Path summaryReportPath;
+    private final Path summaryShardsDir;
+    private final String conversion;
+
+    public FlakyRunSummaryShardConverter(String[] args) {
+        this.summaryReportPath = Path.of(getRequiredArgument(SUMMARY_REPORT_PATH, args));
+        this.summaryShardsDir = Path.of(getRequiredArgument(SUMMARY_SHARDS_DIR, args));
+        this.conversion = getRequiredArgument(CONVERSION, args);
+    }
+
+    public void convert() {
+        switch (conversion) {
+            case TO_SHARDS -> {
+                var summary = parsePreviousSummary(summaryReportPath);
+                if (summary == null) {
+                    throw new IllegalStateException("Summary '" + summaryReportPath + "' could not be read");
+                }
+                new FlakyRunSummaryShards(summaryShardsDir)
+                        .writeSummary(new FlakyRunSummary(summary.metadata(), toProjectSummaries(summary)));
+            }
+            case TO_SINGLE_FILE -> saveSummaryToFileSystem(new FlakyRunSummaryShards(summaryShardsDir).readSummary(),
+                    summaryReportPath);
+            default -> throw new IllegalArgumentException("Unknown conversion '" + conversion + "', expected '"
+                    + TO_SHARDS + "' or '" + TO_SINGLE_FILE + "'");
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package io.quarkus.qe.reporter.flakyrun.summary;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummary.FlakyRunFlake;
+import io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummary.FlakyRunProjectSummary;
+import io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummary.FlakyRunSummaryMetadata;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Sharded summary layout: a directory with one file per {@link FlakyRunProjectSummary} and a small manifest. Shard file
+ * name is derived from a hash of the project name and the project base dir, therefore the shard of a project can be
+ * found without reading the manifest.
+ */
+public final class FlakyRunSummaryShards {
+
+    public static final String MANIFEST_FILE = "manifest.json";
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final String SHARD_FILE_SUFFIX = ".json";
+    private static final int SHARD_FILE_HASH_BYTES = 8;
+    private final Path shardsDir;
+
+    public FlakyRunSummaryShards(Path shardsDir) {
+        this.shardsDir = shardsDir;
+    }
+
+    public record Manifest(List<Shard> shards, FlakyRunSummaryMetadata metadata) {
+    }
+
+    /**
+     * @param oldestDateTime
+     *            date time of the oldest tracked flake occurrence, day retention doesn't change the shard before then;
+     *            null if the shard has no flakes or was written by an older version of this project
+     */
+    public record Shard(String projectName, String projectBaseDir, String shardFile,
+            @JsonInclude(JsonInclude.Include.NON_NULL) String oldestDateTime) {
+
+        public boolean isOlderThan(ZonedDateTime dateTime) {
+            return oldestDateTime == null || !ZonedDateTime.parse(oldestDateTime).isAfter(dateTime);
+        }
+    }
+
+    public static String toShardFile(String projectName, String projectBaseDir) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            digest.update(String.valueOf(projectName).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(String.valueOf(projectBaseDir).getBytes(StandardCharsets.UTF_8));
+            var hash = digest.digest();
+            return HexFormat.of().formatHex(hash, 0, SHARD_FILE_HASH_BYTES) + SHARD_FILE_SUFFIX;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public Manifest readManifest() {
+        var manifestPath = shardsDir.resolve(MANIFEST_FILE);
+        if (!Files.exists(manifestPath)) {
+            return new Manifest(List.of(), null);
+        }
+        try {
+            var manifest = OBJECT_MAPPER.readValue(manifestPath.toFile(), Manifest.class);
+            return manifest.shards() == null ? new Manifest(List.of(), manifest.metadata()) : manifest;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return project summary stored in the shard or null if the shard does not exist
+     */
+    public FlakyRunProjectSummary readShard(String shardFile) {
+        var shardPath = shardsDir.resolve(shardFile);
+        if (!Files.exists(shardPath)) {
+            return null;
+        }
+        try {
+            return OBJECT_MAPPER.readValue(shardPath.toFile(), FlakyRunProjectSummary.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public Shard writeShard(FlakyRunProjectSummary projectSummary) {
+        var shard = toShard(projectSummary);
+        write(shardsDir.resolve(shard.shardFile()), projectSummary);
+        return shard;
+    }
+
+    /**
+     * @return manifest entry of the project summary, the shard file is not written
+     */
+    public static Shard toShard(FlakyRunProjectSummary projectSummary) {
+        return new Shard(projectSummary.projectName(), projectSummary.projectBaseDir(),
+                toShardFile(projectSummary.projectName(), projectSummary.projectBaseDir()),
+                toOldestDateTime(projectSummary));
+    }
+
+    /**
+     * Adds shards to the manifest, shards already present in the manifest are replaced.
+     */
+    public void updateManifest(Manifest manifest, Collection<Shard> changedShards, FlakyRunSummaryMetadata metadata) {
+        Map<String, Shard> shardFileToShard = new TreeMap<>();
+        manifest.shards().forEach(shard -> shardFileToShard.put(shard.shardFile(), shard));
+        changedShards.forEach(shard -> shardFileToShard.put(shard.shardFile(), shard));
+        writeManifest(shardFileToShard.values(), metadata);
+    }
+
+    /**
+     * Updates the summary index with changed project summaries. If there is no index yet, it is created from all the
+     * shards.
+     */
+    public void updateIndex(Collection<FlakyRunProjectSummary> previousProjectSummaries,
+            Collection<FlakyRunProjectSummary> newProjectSummaries) {
+        var indexPath = shardsDir.resolve(FlakySummaryIndex.FLAKY_SUMMARY_INDEX);
+        var index = FlakySummaryIndex.read(indexPath);
+        if (index == null) {
+            index = FlakySummaryIndex.of(readSummary());
+        } else {
+            index = index.update(previousProjectSummaries, newProjectSummaries);
+        }
+        index.write(indexPath);
+    }
+
+    /**
+     * Reads all the shards listed in the manifest, shards are read in parallel.
+     */
+    public FlakyRunSummary readSummary() {
+        var manifest = readManifest();
+        var projects = manifest.shards().parallelStream().map(Shard::shardFile).map(this::readShard)
+                .filter(Objects::nonNull).sorted(FlakyRunSummaryReporter.PROJECT_ORDER).toList();
+        return new FlakyRunSummary(manifest.metadata(), projects);
+    }
+
+    /**
+     * Replaces current shards with projects from the summary, shards are written in parallel.
+     */
+    public void writeSummary(FlakyRunSummary summary) {
+        var previousShards = readManifest().shards();
+        var newShards = summary.flakyProjects().parallelStream().map(this::writeShard)
+                .collect(Collectors.toMap(Shard::shardFile, Function.identity()));
+        for (Shard previousShard : previousShards) {
+            if (!newShards.containsKey(previousShard.shardFile())) {
+                try {
+                    Files.deleteIfExists(shardsDir.resolve(previousShard.shardFile()));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+        writeManifest(newShards.values(), summary.metadata());
+        FlakySummaryIndex.of(summary).write(shardsDir.resolve(FlakySummaryIndex.FLAKY_SUMMARY_INDEX));
+    }
+
+    private static String toOldestDateTime(FlakyRunProjectSummary projectSummary) {
+        if (projectSummary.flakeTests() == null) {
+            return null;
+        }
+        // latest builds are sorted from the newest one
+        return projectSummary.flakeTests().stream().filter(t -> t.flakes() != null).flatMap(t -> t.flakes().stream())
+                .map(FlakyRunFlake::latestBuilds).map(builds -> builds.get(builds.size() - 1).dateTime())
+                .min(Comparator.comparing(ZonedDateTime::parse)).orElse(null);
+    }
+
+    private void writeManifest(Collection<Shard> shards, FlakyRunSummaryMetadata metadata) {
+        var sortedShards = shards.stream()
+                .sorted(Comparator.comparing(Shard::projectName, Comparator.nullsFirst(Comparator.naturalOrder()))
+                        .thenComparing(Shard::shardFile))
+                .toList();
+        write(shardsDir.resolve(MANIFEST_FILE), new Manifest(sortedShards, metadata));
+    }
+
+    private void write(Path path, Object value) {
+        try {
+            Files.createDirectories(shardsDir);
+            OBJECT_MAPPER.writeValue(path.toFile(), value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
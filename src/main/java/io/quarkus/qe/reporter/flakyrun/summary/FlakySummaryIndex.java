@@ -0,0 +1,144 @@
+package io.quarkus.qe.reporter.flakyrun.summary;
+
+import io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummary.FlakyRunFlake;
+import io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummary.FlakyRunProjectSummary;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compact index of the flaky run summary that maps hashed full test names to number of flake occurrences. The index is
+ * a table sorted by the test name hash, so lookups are binary searches and loading the index does not require parsing
+ * the whole summary.
+ */
+public final class FlakySummaryIndex {
+
+    public static final String FLAKY_SUMMARY_INDEX = "flaky-summary-index.bin";
+    private static final int MAGIC = 0x46525349; // FRSI
+    private static final int VERSION = 1;
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private final long[] testNameHashes;
+    private final int[] flakeCounts;
+
+    private FlakySummaryIndex(long[] testNameHashes, int[] flakeCounts) {
+        this.testNameHashes = testNameHashes;
+        this.flakeCounts = flakeCounts;
+    }
+
+    public static FlakySummaryIndex of(FlakyRunSummary summary) {
+        return of(summary.flakyProjects());
+    }
+
+    public static FlakySummaryIndex of(Collection<FlakyRunProjectSummary> projectSummaries) {
+        Map<Long, Integer> hashToCount = new HashMap<>();
+        addFlakeCounts(hashToCount, projectSummaries, 1);
+        return of(hashToCount);
+    }
+
+    public static FlakySummaryIndex read(Path indexPath) {
+        if (!Files.exists(indexPath)) {
+            return null;
+        }
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexPath)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IllegalStateException("File '" + indexPath + "' is not a flaky summary index");
+            }
+            int size = in.readInt();
+            var testNameHashes = new long[size];
+            var flakeCounts = new int[size];
+            for (int i = 0; i < size; i++) {
+                testNameHashes[i] = in.readLong();
+                flakeCounts[i] = in.readInt();
+            }
+            return new FlakySummaryIndex(testNameHashes, flakeCounts);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void write(Path indexPath) {
+        try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(indexPath)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(testNameHashes.length);
+            for (int i = 0; i < testNameHashes.length; i++) {
+                out.writeLong(testNameHashes[i]);
+                out.writeInt(flakeCounts[i]);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return number of flakes recorded in the summary for the test or zero for unknown tests
+     */
+    public int getFlakeCount(String fullTestName) {
+        int i = Arrays.binarySearch(testNameHashes, hash(fullTestName));
+        return i < 0 ? 0 : flakeCounts[i];
+    }
+
+    public int size() {
+        return testNameHashes.length;
+    }
+
+    /**
+     * Creates new index with flakes from the previous project summaries replaced by flakes from the current ones. This
+     * way the index can be updated when only part of the summary was loaded.
+     */
+    public FlakySummaryIndex update(Collection<FlakyRunProjectSummary> previousProjectSummaries,
+            Collection<FlakyRunProjectSummary> currentProjectSummaries) {
+        Map<Long, Integer> hashToCount = new HashMap<>();
+        for (int i = 0; i < testNameHashes.length; i++) {
+            hashToCount.put(testNameHashes[i], flakeCounts[i]);
+        }
+        addFlakeCounts(hashToCount, previousProjectSummaries, -1);
+        addFlakeCounts(hashToCount, currentProjectSummaries, 1);
+        return of(hashToCount);
+    }
+
+    static long hash(String fullTestName) {
+        // FNV-1a is good enough for test names and cheap to compute
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < fullTestName.length(); i++) {
+            hash ^= fullTestName.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private static void addFlakeCounts(Map<Long, Integer> hashToCount,
+            Collection<FlakyRunProjectSummary> projectSummaries, int sign) {
+        for (var projectSummary : projectSummaries) {
+            if (projectSummary == null || projectSummary.flakeTests() == null) {
+                continue;
+            }
+            for (var testSummary : projectSummary.flakeTests()) {
+                int flakes = testSummary.flakes() == null ? 0
+                        : testSummary.flakes().stream().mapToInt(FlakyRunFlake::occurrenceCount).sum();
+                hashToCount.merge(hash(testSummary.fullTestName()), sign * flakes, Integer::sum);
+            }
+        }
+    }
+
+    static FlakySummaryIndex of(Map<Long, Integer> hashToCount) {
+        var testNameHashes = hashToCount.entrySet().stream().filter(e -> e.getValue() > 0).mapToLong(Map.Entry::getKey)
+                .sorted().toArray();
+        var flakeCounts = new int[testNameHashes.length];
+        for (int i = 0; i < testNameHashes.length; i++) {
+            flakeCounts[i] = hashToCount.get(testNameHashes[i]);
+        }
+        return new FlakySummaryIndex(testNameHashes, flakeCounts);
+    }
+}
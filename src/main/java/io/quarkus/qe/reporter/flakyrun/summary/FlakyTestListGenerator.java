@@ -0,0 +1,151 @@
+package io.quarkus.qe.reporter.flakyrun.summary;
+
+import io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummary.FlakyRunFlake;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+import static io.quarkus.qe.reporter.flakyrun.FlakyReporterUtils.getOptionalArgument;
+import static io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryReporter.FLAKY_SUMMARY_REPORT;
+import static io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryReporter.SUMMARY_REPORT_PATH;
+
+/**
+ * Creates lists of frequently flaky tests per project base dir from the flaky run summary. Lists can be used as
+ * Surefire and Failsafe 'includesFile' of an execution with reruns and as 'excludesFile' of the main execution.
+ */
+public final class FlakyTestListGenerator {
+
+    public static final String FLAKY_TESTS_FILE = "flaky-tests.txt";
+    public static final String TEST_LISTS_DIR = "test-lists-dir";
+    public static final String MIN_FLAKES = "min-flakes";
+    public static final String DAY_WINDOW = "day-window";
+    private final Path summaryReportPath;
+    private final Path testListsDir;
+    private final int minFlakes;
+    private final int dayWindow;
+
+    public FlakyTestListGenerator(String[] args) {
+        var summaryReportPath = getOptionalArgument(SUMMARY_REPORT_PATH, args);
+        this.summaryReportPath = Path.of(summaryReportPath == null ? FLAKY_SUMMARY_REPORT : summaryReportPath);
+        var testListsDir = getOptionalArgument(TEST_LISTS_DIR, args);
+        this.testListsDir = Path.of(testListsDir == null ? "flaky-test-lists" : testListsDir);
+        var minFlakes = getOptionalArgument(MIN_FLAKES, args);
+        this.minFlakes = minFlakes == null ? 2 : Integer.parseInt(minFlakes);
+        var dayWindow = getOptionalArgument(DAY_WINDOW, args);
+        this.dayWindow = dayWindow == null ? 14 : Integer.parseInt(dayWindow);
+    }
+
+    /**
+     * @return number of tests written to the lists
+     */
+    public int generate() {
+        if (!Files.isRegularFile(summaryReportPath)) {
+            throw new IllegalArgumentException("Summary '" + summaryReportPath + "' does not exist");
+        }
+        var windowStart = ZonedDateTime.now().minusDays(dayWindow);
+        // only selected tests are kept in memory, summary itself is streamed
+        Map<String, Set<String>> projectBaseDirToTests = new TreeMap<>();
+        try (var reader = FlakyRunSummaryReader.open(summaryReportPath)) {
+            while (reader.hasNext()) {
+                var summaryTest = reader.next();
+                if (isFrequentlyFlaky(summaryTest.testSummary().flakes(), windowStart)) {
+                    var projectBaseDir = summaryTest.projectBaseDir() == null ? "" : summaryTest.projectBaseDir();
+                    projectBaseDirToTests.computeIfAbsent(projectBaseDir, k -> new TreeSet<>())
+                            .add(toTestPattern(summaryTest.testSummary().fullTestName()));
+                }
+            }
+        }
+        deletePreviousTestLists();
+        projectBaseDirToTests.forEach(this::writeTestList);
+        return projectBaseDirToTests.values().stream().mapToInt(Set::size).sum();
+    }
+
+    private boolean isFrequentlyFlaky(List<FlakyRunFlake> flakes, ZonedDateTime windowStart) {
+        if (flakes == null) {
+            return false;
+        }
+        int flakesInWindow = 0;
+        // flakes are sorted from the newest one, so we can stop on the first flake outside the window
+        for (FlakyRunFlake flake : flakes) {
+            if (!ZonedDateTime.parse(flake.dateTime()).isAfter(windowStart)) {
+                return false;
+            }
+            flakesInWindow += flake.occurrencesAfter(windowStart);
+            if (flakesInWindow >= minFlakes) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Transforms 'io.quarkus.qe.SomeTest.testMethod(String)[1]' to the 'io.quarkus.qe.SomeTest#testMethod' pattern.
+     * Display names can contain spaces and other characters with special meaning in Surefire patterns, such characters
+     * are replaced with the '?' wildcard that matches any single character.
+     */
+    static String toTestPattern(String fullTestName) {
+        int methodEnd = fullTestName.length();
+        for (int i = 0; i < fullTestName.length(); i++) {
+            char ch = fullTestName.charAt(i);
+            if (ch == '(' || ch == '[') {
+                methodEnd = i;
+                break;
+            }
+        }
+        // class name can't contain a space, but a display name can contain dots
+        int spaceIdx = fullTestName.indexOf(' ');
+        int classEnd = fullTestName.lastIndexOf('.', (spaceIdx < 0 || spaceIdx > methodEnd ? methodEnd : spaceIdx) - 1);
+        if (classEnd < 0) {
+            return escapeTestPattern(fullTestName.substring(0, methodEnd));
+        }
+        return fullTestName.substring(0, classEnd) + "#"
+                + escapeTestPattern(fullTestName.substring(classEnd + 1, methodEnd));
+    }
+
+    private static String escapeTestPattern(String name) {
+        // parameters are separated by a space in some display names
+        var strippedName = name.strip();
+        var result = new StringBuilder(strippedName.length());
+        for (int i = 0; i < strippedName.length(); i++) {
+            char ch = strippedName.charAt(i);
+            result.append(Character.isJavaIdentifierPart(ch) ? ch : '?');
+        }
+        return result.toString();
+    }
+
+    private void deletePreviousTestLists() {
+        if (!Files.isDirectory(testListsDir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(testListsDir)) {
+            for (Path path : paths.filter(p -> p.endsWith(FLAKY_TESTS_FILE)).toList()) {
+                Files.delete(path);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeTestList(String projectBaseDir, Set<String> testPatterns) {
+        var lines = new ArrayList<String>();
+        lines.add("# tests with at least " + minFlakes + " flakes in last " + dayWindow + " days");
+        lines.addAll(testPatterns);
+        try {
+            var projectTestListDir = testListsDir.resolve(projectBaseDir);
+            Files.createDirectories(projectTestListDir);
+            Files.write(projectTestListDir.resolve(FLAKY_TESTS_FILE), lines);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,269 @@
+// Data chunks are JavaScript files calling 'flakyDashboard.chunkLoaded', so that they can be loaded
+// from the file system, where browsers don't allow to fetch JSON files.
+var flakyDashboard = (function () {
+    var chunks = {};
+    var pendingChunks = {};
+    var overview = null;
+    var content = document.getElementById('content');
+    var jobFilter = document.getElementById('job-filter');
+
+    function chunkLoaded(name, data) {
+        chunks[name] = data;
+        if (pendingChunks[name]) {
+            pendingChunks[name].forEach(function (resolve) {
+                resolve(data);
+            });
+            delete pendingChunks[name];
+        }
+    }
+
+    function load(name) {
+        if (chunks[name]) {
+            return Promise.resolve(chunks[name]);
+        }
+        return new Promise(function (resolve, reject) {
+            if (pendingChunks[name]) {
+                pendingChunks[name].push(resolve);
+                return;
+            }
+            pendingChunks[name] = [resolve];
+            var script = document.createElement('script');
+            script.src = 'data/' + name + '.js';
+            script.onerror = function () {
+                delete pendingChunks[name];
+                reject(new Error('Unable to load ' + script.src));
+            };
+            document.head.appendChild(script);
+        });
+    }
+
+    function el(tag, attributes) {
+        var element = document.createElement(tag);
+        Object.keys(attributes || {}).forEach(function (name) {
+            if (name === 'onclick') {
+                element.onclick = attributes[name];
+            } else {
+                element.setAttribute(name, attributes[name]);
+            }
+        });
+        for (var i = 2; i < arguments.length; i++) {
+            var child = arguments[i];
+            if (child === null || child === undefined) {
+                continue;
+            }
+            element.appendChild(typeof child === 'object' ? child : document.createTextNode(String(child)));
+        }
+        return element;
+    }
+
+    function svg(tag, attributes) {
+        var element = document.createElementNS('http://www.w3.org/2000/svg', tag);
+        Object.keys(attributes).forEach(function (name) {
+            element.setAttribute(name, attributes[name]);
+        });
+        return element;
+    }
+
+    function selectedJob() {
+        return jobFilter.value;
+    }
+
+    function count(item) {
+        var job = selectedJob();
+        return job ? (item.jobFlakes[job] || 0) : item.occurrences;
+    }
+
+    function formatDateTime(dateTime) {
+        // ZonedDateTime format like '2024-05-01T10:00:00.123+02:00[Europe/Prague]'
+        return dateTime ? dateTime.replace(/\[.*\]$/, '').replace('T', ' ').replace(/\.\d+/, '') : '';
+    }
+
+    function barChart(values, labels, width, height, className) {
+        var chart = svg('svg', {'class': className, width: width, height: height});
+        var max = Math.max.apply(null, values.concat([1]));
+        var barWidth = width / Math.max(values.length, 1);
+        values.forEach(function (value, i) {
+            if (value > 0) {
+                var barHeight = Math.max(1, Math.round(value / max * (height - 2)));
+                var bar = svg('rect', {x: i * barWidth, y: height - barHeight,
+                    width: Math.max(1, barWidth - 1), height: barHeight});
+                var title = svg('title', {});
+                title.textContent = labels[i] + ': ' + value;
+                bar.appendChild(title);
+                chart.appendChild(bar);
+            }
+        });
+        return chart;
+    }
+
+    function dailyValues(dailyFlakes) {
+        return overview.days.map(function (day) {
+            return dailyFlakes[day] || 0;
+        });
+    }
+
+    function link(text, hash) {
+        return el('a', {href: '#' + hash}, text);
+    }
+
+    function table(headers, rows) {
+        var headerRow = el('tr');
+        headers.forEach(function (header) {
+            headerRow.appendChild(el('th', header.number ? {'class': 'number'} : {}, header.name));
+        });
+        var body = el('tbody');
+        rows.forEach(function (cells) {
+            var row = el('tr');
+            cells.forEach(function (cell, i) {
+                row.appendChild(el('td', headers[i].number ? {'class': 'number'} : {}, cell));
+            });
+            body.appendChild(row);
+        });
+        return el('table', {}, el('thead', {}, headerRow), body);
+    }
+
+    function renderOverview() {
+        var job = selectedJob();
+        var projects = overview.projects.map(function (project, i) {
+            return {index: i, project: project, count: count(project)};
+        }).filter(function (p) {
+            return p.count > 0;
+        }).sort(function (a, b) {
+            return b.count - a.count;
+        });
+        var topTests = overview.topTests.filter(function (test) {
+            return count(test) > 0;
+        }).sort(function (a, b) {
+            return count(b) - count(a);
+        });
+        content.replaceChildren(
+            el('div', {'class': 'summary'},
+                el('div', {}, overview.projectCount + ' projects'),
+                el('div', {}, overview.testCount + ' flaky tests'),
+                el('div', {}, overview.flakeCount + ' flakes'),
+                el('div', {'class': 'muted'}, 'Generated ' + formatDateTime(overview.generatedAt))),
+            el('h2', {}, 'Flakes per day'),
+            barChart(overview.dailyFlakes[job] || [], overview.days, 900, 150, 'chart'),
+            el('h2', {}, 'Projects'),
+            table([{name: 'Project'}, {name: 'Base dir'}, {name: 'Tests', number: true},
+                    {name: 'Flakes', number: true}, {name: 'Last flake'}],
+                projects.map(function (p) {
+                    return [link(p.project.name, 'project/' + p.index), p.project.baseDir, p.project.tests, p.count,
+                        formatDateTime(p.project.lastDateTime)];
+                })),
+            el('h2', {}, 'Most flaky tests'),
+            table([{name: 'Test'}, {name: 'Project'}, {name: 'Flakes', number: true}, {name: 'Last flake'}],
+                topTests.map(function (test) {
+                    return [link(test.name, 'test/' + test.page + '/' + test.index),
+                        overview.projects[test.project].name, count(test), formatDateTime(test.lastDateTime)];
+                })));
+    }
+
+    function renderProject(projectIndex) {
+        var project = overview.projects[projectIndex];
+        content.replaceChildren(el('h2', {}, project.name), el('p', {}, 'Loading tests...'));
+        Promise.all(project.pages.map(function (page) {
+            return load('tests-' + page).then(function (tests) {
+                return tests.map(function (test, i) {
+                    return {page: page, index: i, test: test};
+                }).filter(function (t) {
+                    return t.test.project === projectIndex;
+                });
+            });
+        })).then(function (pages) {
+            var tests = [].concat.apply([], pages).filter(function (t) {
+                return count(t.test) > 0;
+            }).sort(function (a, b) {
+                return count(b.test) - count(a.test);
+            });
+            content.replaceChildren(
+                el('h2', {}, project.name),
+                el('p', {'class': 'muted'}, project.baseDir),
+                table([{name: 'Test'}, {name: 'Flakes', number: true}, {name: 'Last flake'}, {name: 'History'}],
+                    tests.map(function (t) {
+                        return [link(t.test.name, 'test/' + t.page + '/' + t.index), count(t.test),
+                            formatDateTime(t.test.lastDateTime),
+                            barChart(dailyValues(t.test.dailyFlakes), overview.days, 150, 20, 'sparkline')];
+                    })));
+        }, renderError);
+    }
+
+    function renderTest(page, index) {
+        load('tests-' + page).then(function (tests) {
+            var test = tests[index];
+            var job = selectedJob();
+            var flakes = test.flakes.map(function (flake, i) {
+                return {index: i, flake: flake};
+            }).filter(function (f) {
+                return !job || f.flake.job === job || (f.flake.builds || []).some(function (build) {
+                    return build.ciJobName === job;
+                });
+            });
+            content.replaceChildren(
+                el('h2', {}, test.name),
+                el('p', {}, link(overview.projects[test.project].name, 'project/' + test.project),
+                    ' - ' + test.occurrences + ' flakes'),
+                barChart(dailyValues(test.dailyFlakes), overview.days, 900, 100, 'chart'),
+                el('div', {}, flakes.map(function (f) {
+                    return renderFlake(page, index, f.index, f.flake);
+                }).reduce(function (fragment, element) {
+                    fragment.appendChild(element);
+                    return fragment;
+                }, document.createDocumentFragment())));
+        }, renderError);
+    }
+
+    function renderFlake(page, testIndex, flakeIndex, flake) {
+        var trace = el('div');
+        var occurrences = flake.occurrences > 1
+            ? flake.occurrences + ' occurrences, first ' + formatDateTime(flake.firstDateTime) + ', last '
+            : 'Failed ';
+        var builds = (flake.builds || []).map(function (build) {
+            return build.ciJobName + ' #' + build.ciBuildNumber + ' (' + formatDateTime(build.dateTime) + ')';
+        }).join(', ');
+        var button = el('button', {
+            onclick: function () {
+                button.disabled = true;
+                load('traces-' + page).then(function (traces) {
+                    var traceFlake = traces[testIndex][flakeIndex];
+                    trace.replaceChildren(el('pre', {}, traceFlake.message), el('pre', {}, traceFlake.trace));
+                    button.remove();
+                }, renderError);
+            }
+        }, 'Show stack trace');
+        return el('div', {'class': 'flake'},
+            el('strong', {}, flake.type),
+            el('p', {}, flake.message),
+            el('p', {'class': 'muted'}, occurrences + formatDateTime(flake.dateTime) + ' in ' + flake.job
+                + ' #' + flake.build),
+            builds ? el('p', {'class': 'muted'}, 'Latest builds: ' + builds) : null,
+            button, trace);
+    }
+
+    function renderError(error) {
+        content.replaceChildren(el('p', {}, 'Dashboard data could not be loaded: ' + error.message));
+    }
+
+    function route() {
+        var path = location.hash.replace(/^#/, '').split('/');
+        if (path[0] === 'project') {
+            renderProject(Number(path[1]));
+        } else if (path[0] === 'test') {
+            renderTest(Number(path[1]), Number(path[2]));
+        } else {
+            renderOverview();
+        }
+    }
+
+    load('overview').then(function (data) {
+        overview = data;
+        overview.jobs.forEach(function (job) {
+            jobFilter.appendChild(el('option', {value: job}, job));
+        });
+        jobFilter.onchange = route;
+        window.onhashchange = route;
+        route();
+    }, renderError);
+
+    return {chunkLoaded: chunkLoaded};
+})();
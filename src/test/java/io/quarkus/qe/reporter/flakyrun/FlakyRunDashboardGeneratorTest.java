@@ -0,0 +1,147 @@
+package io.quarkus.qe.reporter.flakyrun;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.qe.reporter.flakyrun.dashboard.FlakyRunDashboardGenerator;
+import io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummary;
+import io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummary.FlakyRunFlake;
+import io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummary.FlakyRunProjectSummary;
+import io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummary.FlakyRunTestSummary;
+import org.codehaus.plexus.util.FileUtils;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static io.quarkus.qe.reporter.flakyrun.FlakyReporterUtils.createCommandArgs;
+import static io.quarkus.qe.reporter.flakyrun.dashboard.FlakyRunDashboardGenerator.DASHBOARD_DIR;
+import static io.quarkus.qe.reporter.flakyrun.dashboard.FlakyRunDashboardGenerator.DATA_DIR;
+import static io.quarkus.qe.reporter.flakyrun.dashboard.FlakyRunDashboardGenerator.TESTS_PER_PAGE;
+import static io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryReporter.SUMMARY_REPORT_PATH;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FlakyRunDashboardGeneratorTest {
+
+    private static final Path TARGET_DASHBOARD_DIR = Path.of("target", "flaky-dashboard");
+    private static final Path TARGET_AGGREGATES_DIR = Path.of("target", "flaky-dashboard-aggregates");
+
+    @Test
+    public void testDashboardIsGenerated() throws IOException {
+        FileUtils.deleteDirectory(TARGET_DASHBOARD_DIR.toFile());
+        // the summary contains 2 tests, therefore there are 2 pages
+        new FlakyRunDashboardGenerator(
+                createCommandArgs(SUMMARY_REPORT_PATH, "src/test/resources/flaky-summary-report.json", DASHBOARD_DIR,
+                        TARGET_DASHBOARD_DIR.toString(), TESTS_PER_PAGE, "1")).generate();
+
+        assertTrue(Files.exists(TARGET_DASHBOARD_DIR.resolve("index.html")));
+        assertTrue(Files.exists(TARGET_DASHBOARD_DIR.resolve("dashboard.js")));
+        var dataDir = TARGET_DASHBOARD_DIR.resolve(DATA_DIR);
+        var overview = Files.readString(dataDir.resolve("overview.js"));
+        assertTrue(overview.startsWith("flakyDashboard.chunkLoaded(\"overview\", {"), overview);
+        assertTrue(overview.contains("\"name\":\"Quarkus QE TS: Quarkus Picocli\""), overview);
+        // stack traces are only in the trace chunks that are loaded on demand
+        assertFalse(overview.contains("at io.quarkus"), overview);
+        var testsPage = Files.readString(dataDir.resolve("tests-1.js"));
+        assertFalse(testsPage.contains("\tat "), testsPage);
+        var tracesPage = Files.readString(dataDir.resolve("traces-1.js"));
+        assertTrue(tracesPage.contains("\\tat "), tracesPage);
+    }
+
+    @Test
+    public void testDashboardAggregates() throws IOException {
+        Files.createDirectories(TARGET_AGGREGATES_DIR);
+        var sameDay = ZonedDateTime.parse("2026-10-10T12:00Z");
+        // 22 occurrences on the same day, only the latest 20 of them are tracked
+        var aggregatedFlake = IntStream.range(0, 22)
+                .mapToObj(i -> flake("failure", sameDay.minusMinutes(i).toString(), "job-1"))
+                .reduce(FlakyRunFlake::aggregate).orElseThrow();
+        var summaryPath = TARGET_AGGREGATES_DIR.resolve("flaky-summary-report.json");
+        new ObjectMapper().writeValue(summaryPath.toFile(),
+                new FlakyRunSummary(List.of(
+                        new FlakyRunProjectSummary("Project A", "a", List.of(
+                                new FlakyRunTestSummary("a.ATest.first",
+                                        List.of(flake("failure", "2026-10-06T10:00Z", "job-1"),
+                                                flake("other failure", "2026-10-09T10:00Z", "job-2"))),
+                                new FlakyRunTestSummary("a.ATest.second", List.of(aggregatedFlake)))),
+                        new FlakyRunProjectSummary("Project B", "b", List.of(new FlakyRunTestSummary("b.BTest.only",
+                                List.of(flake("failure", "2026-10-08T10:00Z", null))))))));
+        var dashboardDir = TARGET_AGGREGATES_DIR.resolve("dashboard");
+
+        new FlakyRunDashboardGenerator(createCommandArgs(SUMMARY_REPORT_PATH, summaryPath.toString(), DASHBOARD_DIR,
+                dashboardDir.toString(), TESTS_PER_PAGE, "2")).generate();
+
+        var dataDir = dashboardDir.resolve(DATA_DIR);
+        var overview = readChunk(dataDir, "overview");
+        assertEquals(2, overview.get("projectCount").asInt());
+        assertEquals(3, overview.get("testCount").asInt());
+        assertEquals(25, overview.get("flakeCount").asInt());
+        assertEquals(2, overview.get("pages").asInt());
+        assertEquals(List.of("job-1", "job-2", "unknown"), toTexts(overview.get("jobs")));
+        // days without flakes are included in the axis
+        assertEquals(List.of("2026-10-06", "2026-10-07", "2026-10-08", "2026-10-09", "2026-10-10"),
+                toTexts(overview.get("days")));
+        // untracked occurrences are counted on the day of the first occurrence
+        assertEquals(List.of("1", "0", "1", "1", "22"), toTexts(overview.get("dailyFlakes").get("")));
+        assertEquals(List.of("1", "0", "0", "0", "22"), toTexts(overview.get("dailyFlakes").get("job-1")));
+        assertEquals(List.of("0", "0", "1", "0", "0"), toTexts(overview.get("dailyFlakes").get("unknown")));
+
+        var projectA = overview.get("projects").get(0);
+        assertEquals("Project A", projectA.get("name").asText());
+        assertEquals(2, projectA.get("tests").asInt());
+        assertEquals(24, projectA.get("occurrences").asInt());
+        assertEquals(23, projectA.get("jobFlakes").get("job-1").asInt());
+        assertEquals(1, projectA.get("jobFlakes").get("job-2").asInt());
+        assertEquals(List.of("0"), toTexts(projectA.get("pages")));
+        var projectB = overview.get("projects").get(1);
+        assertEquals(1, projectB.get("occurrences").asInt());
+        assertEquals(1, projectB.get("jobFlakes").get("unknown").asInt());
+        assertEquals(List.of("1"), toTexts(projectB.get("pages")));
+
+        // top tests are sorted by occurrences and refer to the test on a page
+        var topTests = overview.get("topTests");
+        assertEquals(3, topTests.size());
+        assertEquals(List.of("a.ATest.second", "a.ATest.first", "b.BTest.only"), topTests.findValuesAsText("name"));
+        for (JsonNode topTest : topTests) {
+            var pageTests = readChunk(dataDir, "tests-" + topTest.get("page").asInt());
+            var pageTest = pageTests.get(topTest.get("index").asInt());
+            assertEquals(topTest.get("name").asText(), pageTest.get("name").asText());
+            assertEquals(topTest.get("project").asInt(), pageTest.get("project").asInt());
+            assertEquals(topTest.get("occurrences").asInt(), pageTest.get("occurrences").asInt());
+        }
+        var secondTest = readChunk(dataDir, "tests-0").get(1);
+        assertEquals(22, secondTest.get("jobFlakes").get("job-1").asInt());
+        assertEquals(22, secondTest.get("dailyFlakes").get("2026-10-10").asInt());
+    }
+
+    @Test
+    public void testInvalidTestsPerPage() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new FlakyRunDashboardGenerator(createCommandArgs(TESTS_PER_PAGE, "0")));
+    }
+
+    private static FlakyRunFlake flake(String failureMessage, String dateTime, String ciJobName) {
+        return new FlakyRunFlake(failureMessage, "java.lang.AssertionError", "trace", dateTime, ciJobName, "1");
+    }
+
+    private static JsonNode readChunk(Path dataDir, String chunkName) throws IOException {
+        var chunk = Files.readString(dataDir.resolve(chunkName + ".js"));
+        var prefix = "flakyDashboard.chunkLoaded(\"" + chunkName + "\", ";
+        var suffix = ");\n";
+        assertTrue(chunk.startsWith(prefix) && chunk.endsWith(suffix), chunk);
+        return new ObjectMapper().readTree(chunk.substring(prefix.length(), chunk.length() - suffix.length()));
+    }
+
+    private static List<String> toTexts(JsonNode array) {
+        var texts = new ArrayList<String>();
+        array.forEach(node -> texts.add(node.asText()));
+        return texts;
+    }
+}
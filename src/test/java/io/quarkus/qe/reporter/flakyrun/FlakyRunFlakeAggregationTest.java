@@ -0,0 +1,66 @@
+package io.quarkus.qe.reporter.flakyrun;
+
+import io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummary.FlakyRunFlake;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZonedDateTime;
+
+import static io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummary.FlakyRunFlake.MAX_BUILDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class FlakyRunFlakeAggregationTest {
+
+    @Test
+    public void testOccurrencesAreAggregated() {
+        var now = ZonedDateTime.now();
+        var aggregatedFlake = flake(now.minusDays(10), "1");
+        for (int i = 9; i > 0; i--) {
+            aggregatedFlake = aggregatedFlake.aggregate(flake(now.minusDays(i), Integer.toString(11 - i)));
+        }
+        // the same occurrence added again, e.g. when the same report is added by a different job
+        aggregatedFlake = aggregatedFlake.aggregate(flake(now.minusDays(1), "10"));
+        assertEquals(10, aggregatedFlake.occurrenceCount());
+        assertEquals(now.minusDays(1).toString(), aggregatedFlake.dateTime());
+        assertEquals("10", aggregatedFlake.ciBuildNumber());
+        assertEquals(now.minusDays(10).toString(), aggregatedFlake.firstOccurrenceDateTime());
+        assertEquals(3, aggregatedFlake.occurrencesAfter(now.minusDays(4)));
+
+        var retainedFlake = aggregatedFlake.withoutOccurrencesBefore(now.minusDays(5).minusHours(1));
+        assertEquals(5, retainedFlake.occurrenceCount());
+        assertEquals(now.minusDays(5).toString(), retainedFlake.firstOccurrenceDateTime());
+        assertNull(aggregatedFlake.withoutOccurrencesBefore(now));
+    }
+
+    @Test
+    public void testOccurrenceReferencesAreBounded() {
+        var now = ZonedDateTime.now();
+        var aggregatedFlake = flake(now.minusMinutes(MAX_BUILDS * 2), "0");
+        for (int i = MAX_BUILDS * 2 - 1; i >= 0; i--) {
+            aggregatedFlake = aggregatedFlake.aggregate(flake(now.minusMinutes(i), Integer.toString(i)));
+        }
+        assertEquals(MAX_BUILDS * 2 + 1, aggregatedFlake.occurrenceCount());
+        assertEquals(MAX_BUILDS, aggregatedFlake.builds().size());
+        assertEquals(now.toString(), aggregatedFlake.builds().get(0).dateTime());
+    }
+
+    @Test
+    public void testFailedRerunsAreDistinctOccurrences() {
+        var now = ZonedDateTime.now();
+        // failed reruns of one test case share the date time
+        var aggregatedFlake = rerunFlake(now, null).aggregate(rerunFlake(now, 1)).aggregate(rerunFlake(now, 2));
+        assertEquals(3, aggregatedFlake.occurrenceCount());
+        // the same report added again by a different job
+        aggregatedFlake = aggregatedFlake.aggregate(rerunFlake(now, 1));
+        assertEquals(3, aggregatedFlake.occurrenceCount());
+        assertEquals(3, aggregatedFlake.builds().size());
+    }
+
+    private static FlakyRunFlake rerunFlake(ZonedDateTime dateTime, Integer rerun) {
+        return new FlakyRunFlake("message", "type", "trace", dateTime.toString(), "job", "1", rerun);
+    }
+
+    private static FlakyRunFlake flake(ZonedDateTime dateTime, String ciBuildNumber) {
+        return new FlakyRunFlake("message", "type", "trace", dateTime.toString(), "job", ciBuildNumber);
+    }
+}
@@ -0,0 +1,142 @@
+package io.quarkus.qe.reporter.flakyrun;
+
+import io.quarkus.qe.reporter.flakyrun.mavenextension.FlakyRunProjectResolver;
+import io.quarkus.qe.reporter.flakyrun.reporter.Project;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginExecution;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.logging.Logger;
+import org.codehaus.plexus.logging.console.ConsoleLogger;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FlakyRunProjectResolverTest {
+
+    private static final Path ROOT_DIR = Path.of("target", "project-resolver").toAbsolutePath();
+    private static final String SUREFIRE = "maven-surefire-plugin";
+    private static final String FAILSAFE = "maven-failsafe-plugin";
+
+    @Test
+    public void testModuleSelection() {
+        var projects = List.of(project("", "parent", "pom", SUREFIRE), project("core", "core", "jar", SUREFIRE),
+                project("examples/first", "first-example", "jar", SUREFIRE),
+                project("examples/second", "second-example", "jar", SUREFIRE), project("docs", "docs", "pom", SUREFIRE),
+                project("bom", "bom", "jar"));
+
+        // root and pom-packaged modules, as well as modules without test plugins are skipped
+        assertEquals(List.of("core", "examples/first", "examples/second"), resolve(projects, "verify"));
+        assertEquals(List.of("core"),
+                resolve(projects, properties(FlakyRunProjectResolver.EXCLUDE_MODULES, "examples/*"), "verify"));
+        // patterns are matched against both artifact id and module path
+        assertEquals(List.of("examples/first", "core"), resolve(List.of(projects.get(2), projects.get(1)),
+                properties(FlakyRunProjectResolver.INCLUDE_MODULES, " first-*, core ,"), "verify"));
+        assertEquals(List.of("examples/first"), resolve(projects, properties(FlakyRunProjectResolver.INCLUDE_MODULES,
+                "examples/*", FlakyRunProjectResolver.EXCLUDE_MODULES, "second-example"), "verify"));
+
+        // single-module project root is inspected
+        assertEquals(List.of(""), resolve(List.of(project("", "single", "jar", SUREFIRE)), "verify"));
+    }
+
+    @Test
+    public void testReportDirectories() {
+        var module = project("module", "module", "jar", SUREFIRE, FAILSAFE);
+        module.getBuild().setDirectory(ROOT_DIR.resolve("module").resolve("custom-target").toString());
+        var failsafe = module.getPlugin("org.apache.maven.plugins:" + FAILSAFE);
+        failsafe.setConfiguration(reportsDirectory("it-reports"));
+        failsafe.addExecution(execution("default", null, null));
+        failsafe.addExecution(execution("native", "integration-test", reportsDirectory("native-it-reports")));
+        failsafe.addExecution(execution("unused", "none", reportsDirectory("unused-reports")));
+        failsafe.addExecution(execution("unresolved", "verify", reportsDirectory("${unknown.dir}")));
+
+        var moduleDir = ROOT_DIR.resolve("module");
+        assertEquals(List.of(moduleDir.resolve("it-reports"), moduleDir.resolve("native-it-reports"),
+                moduleDir.resolve("custom-target").resolve("surefire-reports")), reportDirs(module, "verify"));
+        // Failsafe executions are bound to phases after the 'test' phase
+        assertEquals(List.of(moduleDir.resolve("custom-target").resolve("surefire-reports")),
+                reportDirs(module, "clean", "test"));
+        // Failsafe without executions runs no tests
+        var surefireOnly = project("surefire-only", "surefire-only", "jar", SUREFIRE, FAILSAFE);
+        assertEquals(List.of(ROOT_DIR.resolve("surefire-only").resolve("target").resolve("surefire-reports")),
+                reportDirs(surefireOnly, "install"));
+    }
+
+    @Test
+    public void testGoalsWithoutTestPhase() {
+        var module = project("module", "module", "jar", SUREFIRE, FAILSAFE);
+        module.getPlugin("org.apache.maven.plugins:" + FAILSAFE).addExecution(execution("default", null, null));
+        var projects = List.of(project("", "parent", "pom"), module);
+
+        assertTrue(resolve(projects, "clean", "compile").isEmpty());
+        assertTrue(resolve(projects, "dependency:tree").isEmpty());
+        assertEquals(List.of(ROOT_DIR.resolve("module").resolve("target").resolve("surefire-reports")),
+                reportDirs(module, "clean", "surefire:test"));
+        assertEquals(List.of(ROOT_DIR.resolve("module").resolve("target").resolve("failsafe-reports")),
+                reportDirs(module, "org.apache.maven.plugins:maven-failsafe-plugin:3.5.2:integration-test"));
+    }
+
+    private static List<String> resolve(List<MavenProject> projects, String... goals) {
+        return resolve(projects, new Properties(), goals);
+    }
+
+    private static List<String> resolve(List<MavenProject> projects, Properties properties, String... goals) {
+        return newResolver(properties, goals).resolve(projects, ROOT_DIR).stream().map(p -> p.baseDir().toString())
+                .toList();
+    }
+
+    private static List<Path> reportDirs(MavenProject project, String... goals) {
+        var projects = newResolver(new Properties(), goals).resolve(List.of(project), ROOT_DIR);
+        return projects.stream().map(Project::reportDirs).findFirst().orElse(List.of());
+    }
+
+    private static FlakyRunProjectResolver newResolver(Properties properties, String... goals) {
+        return new FlakyRunProjectResolver(new ConsoleLogger(Logger.LEVEL_WARN, "resolver"), properties,
+                List.of(goals));
+    }
+
+    private static Properties properties(String... keysAndValues) {
+        var properties = new Properties();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            properties.setProperty(keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return properties;
+    }
+
+    private static MavenProject project(String path, String artifactId, String packaging, String... plugins) {
+        var baseDir = ROOT_DIR.resolve(path);
+        var project = new MavenProject();
+        project.setFile(baseDir.resolve("pom.xml").toFile());
+        project.setArtifactId(artifactId);
+        project.setName(artifactId);
+        project.setPackaging(packaging);
+        project.getBuild().setDirectory(baseDir.resolve("target").toString());
+        for (String artifact : plugins) {
+            var plugin = new Plugin();
+            plugin.setArtifactId(artifact);
+            project.getBuild().addPlugin(plugin);
+        }
+        return project;
+    }
+
+    private static PluginExecution execution(String id, String phase, Xpp3Dom configuration) {
+        var execution = new PluginExecution();
+        execution.setId(id);
+        execution.setPhase(phase);
+        execution.setConfiguration(configuration);
+        return execution;
+    }
+
+    private static Xpp3Dom reportsDirectory(String reportsDirectory) {
+        var reportsDir = new Xpp3Dom("reportsDirectory");
+        reportsDir.setValue(reportsDirectory);
+        var configuration = new Xpp3Dom("configuration");
+        configuration.addChild(reportsDir);
+        return configuration;
+    }
+}
@@ -1,7 +1,11 @@
 package io.quarkus.qe.reporter.flakyrun;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.quarkus.qe.reporter.flakyrun.commentator.CreateGhPrComment;
+import io.quarkus.qe.reporter.flakyrun.pipeline.FlakyRunPipeline;
+import io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummary;
 import io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryReporter;
+import io.quarkus.qe.reporter.flakyrun.summary.FlakySummaryIndex;
 import org.apache.maven.shared.invoker.DefaultInvocationRequest;
 import org.apache.maven.shared.invoker.DefaultInvoker;
 import org.apache.maven.shared.invoker.InvocationRequest;
@@ -17,6 +21,8 @@ import java.io.File;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.List;
 import java.util.Objects;
 import java.util.Properties;
@@ -24,11 +30,15 @@ import java.util.Properties;
 import static io.quarkus.qe.reporter.flakyrun.FlakyReporterUtils.createCommandArgs;
 import static io.quarkus.qe.reporter.flakyrun.FlakyReporterUtils.readFile;
 import static io.quarkus.qe.reporter.flakyrun.commentator.CreateGhPrComment.FLAKY_REPORTS_FILE_PREFIX_KEY;
+import static io.quarkus.qe.reporter.flakyrun.commentator.CreateGhPrComment.FLAKY_SUMMARY_INDEX_KEY;
 import static io.quarkus.qe.reporter.flakyrun.commentator.CreateGhPrComment.OVERVIEW_FILE_KEY;
+import static io.quarkus.qe.reporter.flakyrun.pipeline.FlakyRunPipeline.PR_COMMENT_PATH;
 import static io.quarkus.qe.reporter.flakyrun.reporter.FlakyRunReporter.FLAKY_RUN_REPORT;
 import static io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryReporter.CI_BUILD_NUMBER;
 import static io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryReporter.DAY_RETENTION;
 import static io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryReporter.FLAKY_SUMMARY_REPORT;
+import static io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryReporter.NEW_SUMMARY_REPORT_PATH;
+import static io.quarkus.qe.reporter.flakyrun.summary.FlakySummaryIndex.FLAKY_SUMMARY_INDEX;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -37,6 +47,7 @@ public class FlakyRunReportTest {
 
     private static final File TEMPLATE_FLAKY_TEST_DIR = new File("src/test/resources-flaky-test");
     private static final File TARGET_FLAKY_TEST_DIR = new File("target/flaky-test");
+    private static final String PREVIOUS_FLAKY_SUMMARY_INDEX = "previous-" + FLAKY_SUMMARY_INDEX;
 
     // HINT: always build this project first and then run tests
     // otherwise in my experience, you are testing previous version
@@ -59,6 +70,49 @@ public class FlakyRunReportTest {
         assertGeneratedFlakyRunReport();
         assertFlakyRunSummary();
         assertGitHubPrCommentator();
+        assertFlakyRunPipeline();
+    }
+
+    private static void assertFlakyRunPipeline() throws IOException {
+        // reuses flaky run reports, overview and PR number prepared for the GH PR commentator
+        var testTarget = getFlakyRunReportFile().toPath().getParent();
+        System.setProperty(CreateGhPrComment.TEST_BASE_DIR, testTarget.toString());
+        var pipelineDir = testTarget.resolve("pipeline");
+        Files.createDirectories(pipelineDir);
+        var summaryPath = pipelineDir.resolve(FLAKY_SUMMARY_REPORT);
+        Files.copy(Path.of("src/test/resources/flaky-summary-report.json"), summaryPath,
+                StandardCopyOption.REPLACE_EXISTING);
+        // index of the previous summary, normally written by the previous summary run
+        FlakySummaryIndex.of(new ObjectMapper().readValue(summaryPath.toFile(), FlakyRunSummary.class))
+                .write(pipelineDir.resolve(FLAKY_SUMMARY_INDEX));
+        var prCommentPath = pipelineDir.resolve("pr-comment.md");
+        var args = createCommandArgs(OVERVIEW_FILE_KEY, "overview_file.txt", FLAKY_REPORTS_FILE_PREFIX_KEY,
+                "flaky-run-report-", FLAKY_SUMMARY_INDEX_KEY, "pipeline/" + FLAKY_SUMMARY_INDEX,
+                "previous-summary-report-path", summaryPath.toString(), NEW_SUMMARY_REPORT_PATH, summaryPath.toString(),
+                CI_BUILD_NUMBER, "123", DAY_RETENTION, Integer.MAX_VALUE + "", PR_COMMENT_PATH,
+                prCommentPath.toString());
+
+        new FlakyRunPipeline(args, "quarkus-qe/quarkus-test-suite", "1234567890").run();
+
+        var comment = Files.readString(prCommentPath);
+        assertTrue(comment.contains("**`io.quarkus.qe.reporter.flakyrun.FlakyTest.testFlaky`**"), comment);
+        assertTrue(comment.contains(" - Flake history: new flake, not found in the flaky run summary"), comment);
+        assertTrue(comment.contains("   - PR - Linux - JVM build - Latest Version"), comment);
+        var summary = Files.readString(summaryPath);
+        assertTrue(summary.contains("PicocliDevIT.verifyGreetingCommandOutputsExpectedMessage"), summary);
+        assertTrue(summary.contains("FlakyTest.testFlaky"), summary);
+        // job name is resolved from the report file name like in the comment
+        assertTrue(summary.contains("PR - Windows - JVM build - Latest Version"), summary);
+        assertEquals(1, FlakySummaryIndex.read(pipelineDir.resolve(FLAKY_SUMMARY_INDEX))
+                .getFlakeCount("io.quarkus.qe.reporter.flakyrun.FlakyTest.testFlaky"));
+
+        // CI retry of the same build: the comment is created again, but the summary is not changed
+        // and the flake of this build, already added by the previous attempt, is not counted as history
+        Files.delete(prCommentPath);
+        new FlakyRunPipeline(args, "quarkus-qe/quarkus-test-suite", "1234567890").run();
+        comment = Files.readString(prCommentPath);
+        assertTrue(comment.contains(" - Flake history: new flake, not found in the flaky run summary"), comment);
+        assertEquals(summary, Files.readString(summaryPath));
     }
 
     private static void assertGitHubPrCommentator() throws IOException {
@@ -95,8 +149,10 @@ public class FlakyRunReportTest {
         FileUtils.copyFile(getFlakyRunReportFile(), newFlakyRunReportFile6);
 
         // prepare comment
+        // the summary reporter that runs before this commentator rewrote the summary index with the current flake,
+        // so the index of the previous summary is used, like when the commentator runs before the summary reporter
         var args = createCommandArgs(OVERVIEW_FILE_KEY, overview.getName(), FLAKY_REPORTS_FILE_PREFIX_KEY,
-                expectedReportPrefix);
+                expectedReportPrefix, FLAKY_SUMMARY_INDEX_KEY, PREVIOUS_FLAKY_SUMMARY_INDEX);
         var commentator = new CreateGhPrComment(args, "quarkus-qe/quarkus-test-suite", "1234567890");
         var comment = commentator.getComment();
 
@@ -113,6 +169,7 @@ public class FlakyRunReportTest {
                 comment);
         assertTrue(comment.contains("**`io.quarkus.qe.reporter.flakyrun.FlakyTest.testFlaky`**"), comment);
         assertTrue(comment.contains(" - Failure message: `failing to test flakiness reporting`"), comment);
+        assertTrue(comment.contains(" - Flake history: new flake, not found in the flaky run summary"), comment);
         assertTrue(comment.contains("   - PR - Windows - JVM build - Latest Version"), comment);
         assertTrue(comment.contains("   - PR - Linux - JVM build - Latest Version"), comment);
         assertTrue(comment.contains("   - PR - Linux - Native build - Latest Version"), comment);
@@ -131,6 +188,9 @@ public class FlakyRunReportTest {
         var previousValue = Files.readString(summaryTarget.toPath());
         assertTrue(previousValue.contains("PicocliDevIT.verifyGreetingCommandOutputsExpectedMessage"), previousValue);
         assertFalse(previousValue.contains("FlakyTest.testFlaky"), previousValue);
+        var previousSummary = new ObjectMapper().readValue(summaryTarget, FlakyRunSummary.class);
+        FlakySummaryIndex.of(previousSummary)
+                .write(summaryTarget.toPath().resolveSibling(PREVIOUS_FLAKY_SUMMARY_INDEX));
 
         System.setProperty(FlakyRunSummaryReporter.TEST_BASE_DIR, getFlakyRunReportFile().getParent());
         // making it maximal day retention because the old message needs to be valid for this test to pass
@@ -144,6 +204,14 @@ public class FlakyRunReportTest {
         assertTrue(newValue.contains("PicocliDevIT.verifyGreetingCommandOutputsExpectedMessage"), newValue);
         assertTrue(newValue.contains("FlakyTest.testFlaky"), newValue);
         assertTrue(newValue.contains(expectedBuildNumber), newValue);
+        var newIndex = FlakySummaryIndex.read(summaryTarget.toPath().resolveSibling(FLAKY_SUMMARY_INDEX));
+        assertEquals(1, newIndex.getFlakeCount("io.quarkus.qe.reporter.flakyrun.FlakyTest.testFlaky"));
+
+        // adding the same report from the same build again must not change the summary
+        new FlakyRunSummaryReporter(
+                createCommandArgs(CI_BUILD_NUMBER, expectedBuildNumber, DAY_RETENTION, Integer.MAX_VALUE + ""))
+                        .createReport();
+        assertEquals(newValue, Files.readString(summaryTarget.toPath()));
     }
 
     private static void assertGeneratedFlakyRunReport() throws IOException {
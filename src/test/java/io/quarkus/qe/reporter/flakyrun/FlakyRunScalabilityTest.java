@@ -0,0 +1,366 @@
+package io.quarkus.qe.reporter.flakyrun;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.qe.reporter.flakyrun.commentator.CreateGhPrComment;
+import io.quarkus.qe.reporter.flakyrun.mavenextension.FlakyRunProjectResolver;
+import io.quarkus.qe.reporter.flakyrun.reporter.FlakyRunReport;
+import io.quarkus.qe.reporter.flakyrun.reporter.FlakyRunReporter;
+import io.quarkus.qe.reporter.flakyrun.reporter.FlakyTest;
+import io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummary.FlakyRunFlake;
+import io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummary.FlakyRunProjectSummary;
+import io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummary.FlakyRunTestSummary;
+import io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryFederation;
+import io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryReporter;
+import io.quarkus.qe.reporter.flakyrun.summary.FlakySummaryIndex;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginExecution;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.logging.Logger;
+import org.codehaus.plexus.logging.console.ConsoleLogger;
+import org.codehaus.plexus.util.FileUtils;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.function.Supplier;
+
+import static io.quarkus.qe.reporter.flakyrun.FlakyReporterUtils.createCommandArgs;
+import static io.quarkus.qe.reporter.flakyrun.commentator.CreateGhPrComment.FLAKY_REPORTS_FILE_PREFIX_KEY;
+import static io.quarkus.qe.reporter.flakyrun.commentator.CreateGhPrComment.FLAKY_SUMMARY_INDEX_KEY;
+import static io.quarkus.qe.reporter.flakyrun.commentator.CreateGhPrComment.OVERVIEW_FILE_KEY;
+import static io.quarkus.qe.reporter.flakyrun.reporter.FlakyRunReporter.FLAKY_RUN_REPORT;
+import static io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryFederation.SUMMARY_REPORT_PATHS;
+import static io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryReporter.CI_BUILD_NUMBER;
+import static io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryReporter.CI_JOB_NAME;
+import static io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryReporter.NEW_SUMMARY_REPORT_PATH;
+import static io.quarkus.qe.reporter.flakyrun.summary.FlakySummaryIndex.FLAKY_SUMMARY_INDEX;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs reporters against synthetic large reactors and summaries. Tests are only enabled by the 'scalability' profile,
+ * which also constrains the heap, so that tests fail when reporters stop fitting into the memory. Heap budgets are
+ * checked against the peak usage of the old generation, which approximates the retained data better than the young
+ * generation whose size depends on the garbage collector.
+ */
+@EnabledIfSystemProperty(named = FlakyRunScalabilityTest.SCALABILITY_TESTS, matches = "true")
+public class FlakyRunScalabilityTest {
+
+    static final String SCALABILITY_TESTS = "flaky-run-reporter.scalability-tests";
+    private static final Path TARGET_SCALABILITY_DIR = Path.of("target", "flaky-scalability");
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final String FAILURE_TYPE = "org.opentest4j.AssertionFailedError";
+    private static final int STACK_TRACE_FRAMES = 8;
+    // reactor: 300 modules * 40 test classes * 20 tests, every 5th test class has one flaky test
+    private static final int REACTOR_MODULES = 300;
+    private static final int TEST_CLASSES_PER_MODULE = 40;
+    private static final int TESTS_PER_CLASS = 20;
+    private static final int FLAKY_CLASS_FREQUENCY = 5;
+    // summary: 2 000 projects * 10 tests * 5 flakes = 100 000 flakes
+    private static final int SUMMARY_PROJECTS = 2_000;
+    private static final int SUMMARY_TESTS_PER_PROJECT = 10;
+    private static final int SUMMARY_FLAKES_PER_TEST = 5;
+    private static final int NEW_REPORT_FLAKY_TESTS = 1_000;
+    // commentator: 50 jobs * 500 flaky tests
+    private static final int COMMENTATOR_JOBS = 50;
+    private static final int COMMENTATOR_TESTS_PER_JOB = 500;
+
+    @Test
+    public void testReactorWithManyModules() throws IOException {
+        var reactorDir = prepareDir("reactor").toAbsolutePath();
+        var mavenProjects = new ArrayList<MavenProject>();
+        mavenProjects.add(mavenProject(reactorDir, "reactor", "pom", "target"));
+        for (int module = 0; module < REACTOR_MODULES; module++) {
+            var moduleDir = reactorDir.resolve(moduleName(module));
+            // every other module has custom build directory and all of them have unused Failsafe report directory
+            var buildDir = module % 2 == 0 ? "target" : "build";
+            writeSurefireReports(moduleDir.resolve(buildDir).resolve("surefire-reports"), module);
+            mavenProjects.add(mavenProject(moduleDir, moduleName(module), "jar", buildDir));
+        }
+        var reportPath = Path.of("target").resolve(FLAKY_RUN_REPORT);
+        Files.deleteIfExists(reportPath);
+
+        // resolution is measured as well, because the extension resolves report directories of every module
+        int testClasses = REACTOR_MODULES * TEST_CLASSES_PER_MODULE;
+        var logger = new ConsoleLogger(Logger.LEVEL_WARN, "scalability");
+        var projects = measure("reactor", testClasses, 100, Duration.ofSeconds(120), 96, () -> {
+            var resolvedProjects = new FlakyRunProjectResolver(logger, new Properties(), List.of("clean", "verify"))
+                    .resolve(mavenProjects, reactorDir);
+            new FlakyRunReporter(logger).createReport(resolvedProjects);
+            return resolvedProjects;
+        });
+
+        var flakyTests = FlakyRunReport.parse(reportPath).flakyTests();
+        // moved away, so that the report is not mistaken for a report of this project
+        Files.move(reportPath, reactorDir.resolve(FLAKY_RUN_REPORT));
+        assertEquals(REACTOR_MODULES, projects.size());
+        assertEquals(testClasses / FLAKY_CLASS_FREQUENCY, flakyTests.size());
+    }
+
+    @Test
+    public void testSummaryWithManyFlakes() throws IOException {
+        var summaryDir = prepareDir("summary");
+        var previousSummary = summaryDir.resolve("previous-summary.json");
+        writeSummary(previousSummary, "main");
+        var newFlakyReport = summaryDir.resolve(FLAKY_RUN_REPORT);
+        writeFlakyRunReport(newFlakyReport, NEW_REPORT_FLAKY_TESTS);
+        var newSummary = summaryDir.resolve("new-summary.json");
+        var args = createCommandArgs("previous-summary-report-path", previousSummary.toString(),
+                "new-flaky-report-path", newFlakyReport.toString(), NEW_SUMMARY_REPORT_PATH, newSummary.toString(),
+                CI_JOB_NAME, "new-job", CI_BUILD_NUMBER, "2");
+
+        // summary reporter keeps the whole summary in memory, hence the larger budget
+        int flakes = SUMMARY_PROJECTS * SUMMARY_TESTS_PER_PROJECT * SUMMARY_FLAKES_PER_TEST;
+        measure("summary", flakes, 5_000, Duration.ofSeconds(60), 192, () -> {
+            new FlakyRunSummaryReporter(args).createReport();
+            return null;
+        });
+
+        var index = FlakySummaryIndex.read(summaryDir.resolve(FLAKY_SUMMARY_INDEX));
+        assertEquals(SUMMARY_PROJECTS * SUMMARY_TESTS_PER_PROJECT, index.size());
+        assertEquals(SUMMARY_FLAKES_PER_TEST + 1, index.getFlakeCount(testName(0, 0)));
+        assertEquals(SUMMARY_FLAKES_PER_TEST, index.getFlakeCount(testName(SUMMARY_PROJECTS - 1, 0)));
+    }
+
+    @Test
+    public void testFederationOfLargeSummaries() throws IOException {
+        var federationDir = prepareDir("federation");
+        var mainSummary = federationDir.resolve("main-summary.json");
+        writeSummary(mainSummary, "main");
+        var branchSummary = federationDir.resolve("branch-summary.json");
+        writeSummary(branchSummary, "branch");
+        var mergedSummary = federationDir.resolve("merged-summary.json");
+        var args = createCommandArgs(SUMMARY_REPORT_PATHS, mainSummary + "," + branchSummary, NEW_SUMMARY_REPORT_PATH,
+                mergedSummary.toString());
+
+        // sorted summaries are streamed, only the index grows with the number of tests
+        int flakes = 2 * SUMMARY_PROJECTS * SUMMARY_TESTS_PER_PROJECT * SUMMARY_FLAKES_PER_TEST;
+        measure("federation", flakes, 10_000, Duration.ofSeconds(60), 48, () -> {
+            new FlakyRunSummaryFederation(args).merge();
+            return null;
+        });
+
+        var index = FlakySummaryIndex.read(federationDir.resolve(FLAKY_SUMMARY_INDEX));
+        assertEquals(SUMMARY_PROJECTS * SUMMARY_TESTS_PER_PROJECT, index.size());
+        assertEquals(2 * SUMMARY_FLAKES_PER_TEST, index.getFlakeCount(testName(SUMMARY_PROJECTS / 2, 0)));
+    }
+
+    @Test
+    public void testPrCommentForManyJobs() throws IOException {
+        var commentatorDir = prepareDir("commentator");
+        var reportPrefix = "flaky-run-report-";
+        var jobs = new ArrayList<String>();
+        var projectSummaries = new ArrayList<FlakyRunProjectSummary>();
+        for (int job = 0; job < COMMENTATOR_JOBS; job++) {
+            jobs.add("'PR - Linux - JVM build - Version %03d'".formatted(job));
+            writeFlakyRunReport(commentatorDir.resolve(reportPrefix + "linux-jvm-%03d.json".formatted(job)),
+                    COMMENTATOR_TESTS_PER_JOB);
+        }
+        var now = ZonedDateTime.now().toString();
+        for (int test = 0; test < COMMENTATOR_TESTS_PER_JOB; test++) {
+            var flake = new FlakyRunFlake("message", FAILURE_TYPE, "trace", now, "main", "1");
+            projectSummaries.add(new FlakyRunProjectSummary(moduleName(test), moduleName(test),
+                    List.of(new FlakyRunTestSummary(testName(test, 0), List.of(flake)))));
+        }
+        FlakySummaryIndex.of(projectSummaries).write(commentatorDir.resolve(FLAKY_SUMMARY_INDEX));
+        Files.writeString(commentatorDir.resolve("overview_file.txt"), String.join(", ", jobs));
+        Files.writeString(commentatorDir.resolve("pr-number"), "8888");
+        var args = createCommandArgs(OVERVIEW_FILE_KEY, "overview_file.txt", FLAKY_REPORTS_FILE_PREFIX_KEY,
+                reportPrefix, FLAKY_SUMMARY_INDEX_KEY, FLAKY_SUMMARY_INDEX);
+
+        int flakyTests = COMMENTATOR_JOBS * COMMENTATOR_TESTS_PER_JOB;
+        String comment;
+        System.setProperty(CreateGhPrComment.TEST_BASE_DIR, commentatorDir.toString());
+        try {
+            comment = measure("commentator", flakyTests, 1_000, Duration.ofSeconds(60), 64,
+                    () -> new CreateGhPrComment(args, "quarkus-qe/quarkus-test-suite", "1234567890").getComment());
+        } finally {
+            System.clearProperty(CreateGhPrComment.TEST_BASE_DIR);
+        }
+
+        assertTrue(comment.contains("**`" + testName(COMMENTATOR_TESTS_PER_JOB - 1, 0) + "`**"));
+        assertTrue(comment.contains(" - Flake history: known flake, failed once according to the flaky run summary"),
+                comment);
+        assertTrue(comment.contains("   - PR - Linux - JVM build - Version %03d".formatted(COMMENTATOR_JOBS - 1)),
+                comment);
+    }
+
+    private static <T> T measure(String scenario, int items, int minItemsPerSecond, Duration timeBudget,
+            int heapBudgetMb, Supplier<T> action) {
+        var heapPools = getOldGenerationPools();
+        System.gc();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        long start = System.nanoTime();
+        T result = action.get();
+        var elapsed = Duration.ofNanos(System.nanoTime() - start);
+        long peakHeapMb = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum() / (1024 * 1024);
+        long itemsPerSecond = items * 1000L / Math.max(1, elapsed.toMillis());
+        System.out.printf("Scenario '%s' processed %d items in %d ms (%d items/s), peak heap %d MB%n", scenario, items,
+                elapsed.toMillis(), itemsPerSecond, peakHeapMb);
+        assertTrue(elapsed.compareTo(timeBudget) <= 0,
+                "Scenario '" + scenario + "' took " + elapsed.toMillis() + " ms, budget is " + timeBudget.toMillis());
+        assertTrue(itemsPerSecond >= minItemsPerSecond, "Scenario '" + scenario + "' processed " + itemsPerSecond
+                + " items per second, expected at least " + minItemsPerSecond);
+        assertTrue(peakHeapMb <= heapBudgetMb,
+                "Scenario '" + scenario + "' peak heap is " + peakHeapMb + " MB, budget is " + heapBudgetMb + " MB");
+        return result;
+    }
+
+    private static List<MemoryPoolMXBean> getOldGenerationPools() {
+        var heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP).toList();
+        var oldGenerationPools = heapPools.stream()
+                .filter(pool -> pool.getName().contains("Old Gen") || pool.getName().contains("Tenured Gen")).toList();
+        // collectors without generations, like ZGC, only have one heap pool
+        return oldGenerationPools.isEmpty() ? heapPools : oldGenerationPools;
+    }
+
+    private static Path prepareDir(String scenario) throws IOException {
+        var dir = TARGET_SCALABILITY_DIR.resolve(scenario);
+        FileUtils.deleteDirectory(dir.toFile());
+        Files.createDirectories(dir);
+        return dir;
+    }
+
+    private static MavenProject mavenProject(Path baseDir, String artifactId, String packaging, String buildDir) {
+        var project = new MavenProject();
+        project.setFile(baseDir.resolve("pom.xml").toFile());
+        project.setArtifactId(artifactId);
+        project.setName(artifactId);
+        project.setPackaging(packaging);
+        project.getBuild().setDirectory(baseDir.resolve(buildDir).toString());
+        var surefire = new Plugin();
+        surefire.setArtifactId("maven-surefire-plugin");
+        project.getBuild().addPlugin(surefire);
+        var failsafe = new Plugin();
+        failsafe.setArtifactId("maven-failsafe-plugin");
+        var reportsDirectory = new Xpp3Dom("reportsDirectory");
+        reportsDirectory.setValue(buildDir + "/it-reports");
+        var configuration = new Xpp3Dom("configuration");
+        configuration.addChild(reportsDirectory);
+        var execution = new PluginExecution();
+        execution.setId("default");
+        execution.setConfiguration(configuration);
+        failsafe.addExecution(execution);
+        project.getBuild().addPlugin(failsafe);
+        return project;
+    }
+
+    private static void writeSurefireReports(Path reportsDir, int module) throws IOException {
+        Files.createDirectories(reportsDir);
+        for (int testClass = 0; testClass < TEST_CLASSES_PER_MODULE; testClass++) {
+            var className = className(module, testClass);
+            boolean flaky = testClass % FLAKY_CLASS_FREQUENCY == 0;
+            var xml = new StringBuilder();
+            xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+            xml.append("<testsuite name=\"").append(className).append("\" time=\"1.0\" tests=\"")
+                    .append(TESTS_PER_CLASS).append("\" errors=\"0\" skipped=\"0\" failures=\"0\" flakes=\"")
+                    .append(flaky ? 1 : 0).append("\">\n");
+            for (int test = 0; test < TESTS_PER_CLASS; test++) {
+                xml.append("  <testcase name=\"test").append(test).append("\" classname=\"").append(className)
+                        .append("\" time=\"0.05\"");
+                if (flaky && test == 0) {
+                    xml.append(">\n    <flakyFailure message=\"expected 1 but was 2\" type=\"").append(FAILURE_TYPE)
+                            .append("\">\n      <stackTrace>").append(stackTrace(className, "test0"))
+                            .append("</stackTrace>\n    </flakyFailure>\n  </testcase>\n");
+                } else {
+                    xml.append("/>\n");
+                }
+            }
+            xml.append("</testsuite>\n");
+            Files.writeString(reportsDir.resolve("TEST-" + className + ".xml"), xml);
+        }
+    }
+
+    private static void writeFlakyRunReport(Path reportPath, int flakyTests) {
+        var now = ZonedDateTime.now().toString();
+        var report = new ArrayList<FlakyTest>();
+        for (int test = 0; test < flakyTests; test++) {
+            report.add(new FlakyTest(moduleName(test), moduleName(test), testName(test, 0), "expected 1 but was 2",
+                    FAILURE_TYPE, stackTrace(className(test, 0), "test0"), now));
+        }
+        try {
+            OBJECT_MAPPER.writeValue(reportPath.toFile(), report);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Streams the summary to the file, so that generated summaries are not limited by the test heap. Projects and tests
+     * are written sorted by their names, like the summary reporter writes them.
+     */
+    private static void writeSummary(Path summaryPath, String ciJobName) throws IOException {
+        var now = ZonedDateTime.now();
+        try (JsonGenerator generator = new JsonFactory().createGenerator(summaryPath.toFile(), JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("flakyProjects");
+            for (int project = 0; project < SUMMARY_PROJECTS; project++) {
+                generator.writeStartObject();
+                generator.writeStringField("projectName", moduleName(project));
+                generator.writeStringField("projectBaseDir", moduleName(project));
+                generator.writeArrayFieldStart("flakeTests");
+                for (int test = 0; test < SUMMARY_TESTS_PER_PROJECT; test++) {
+                    generator.writeStartObject();
+                    generator.writeStringField("fullTestName", testName(project, test));
+                    generator.writeArrayFieldStart("flakes");
+                    for (int flake = 0; flake < SUMMARY_FLAKES_PER_TEST; flake++) {
+                        generator.writeStartObject();
+                        generator.writeStringField("failureMessage", "expected " + flake + " but was " + (flake + 1));
+                        generator.writeStringField("failureType", FAILURE_TYPE);
+                        generator.writeStringField("failureStackTrace",
+                                stackTrace(className(project, 0), "test" + test));
+                        generator.writeStringField("dateTime", now.minusDays(flake + 1).toString());
+                        generator.writeStringField("ciJobName", ciJobName);
+                        generator.writeStringField("ciBuildNumber", "1");
+                        generator.writeEndObject();
+                    }
+                    generator.writeEndArray();
+                    generator.writeEndObject();
+                }
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+
+    private static String stackTrace(String className, String methodName) {
+        var stackTrace = new StringBuilder(FAILURE_TYPE).append(": expected 1 but was 2\n");
+        stackTrace.append("\tat ").append(className).append('.').append(methodName).append('(')
+                .append(className.substring(className.lastIndexOf('.') + 1)).append(".java:42)\n");
+        for (int frame = 1; frame < STACK_TRACE_FRAMES; frame++) {
+            stackTrace.append("\tat org.junit.platform.Frame").append(frame).append(".invoke(Frame").append(frame)
+                    .append(".java:").append(frame * 10).append(")\n");
+        }
+        return stackTrace.toString();
+    }
+
+    private static String moduleName(int module) {
+        return "module-%05d".formatted(module);
+    }
+
+    private static String className(int module, int testClass) {
+        return "io.quarkus.qe.module%05d.Flaky%02dTest".formatted(module, testClass);
+    }
+
+    private static String testName(int module, int test) {
+        return className(module, 0) + ".test" + test;
+    }
+}
@@ -0,0 +1,159 @@
+package io.quarkus.qe.reporter.flakyrun;
+
+import io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryDaemon;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+
+import static io.quarkus.qe.reporter.flakyrun.FlakyReporterUtils.createCommandArgs;
+import static io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryDaemon.MAX_REPORT_SIZE_KB;
+import static io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryDaemon.PORT;
+import static io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryDaemon.SNAPSHOT_INTERVAL_SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FlakyRunSummaryDaemonTest {
+
+    private static final Path TARGET_DAEMON_DIR = Path.of("target", "flaky-summary-daemon");
+
+    @Test
+    public void testReportsAreMergedAndSnapshotted() throws IOException, InterruptedException {
+        Files.createDirectories(TARGET_DAEMON_DIR);
+        var summaryPath = TARGET_DAEMON_DIR.resolve("flaky-summary-report.json");
+        Files.deleteIfExists(summaryPath);
+        var args = createCommandArgs(PORT, "0", SNAPSHOT_INTERVAL_SECONDS, "0", "previous-summary-report-path",
+                summaryPath.toString(), "new-summary-report-path", summaryPath.toString());
+        var report = """
+                [ {
+                  "projectName" : "Daemon Project",
+                  "projectBaseDir" : "daemon-project",
+                  "fullTestName" : "io.quarkus.qe.DaemonTest.testFlaky",
+                  "failureMessage" : "daemon failure",
+                  "failureType" : "java.lang.AssertionError",
+                  "failureStackTrace" : "java.lang.AssertionError: daemon failure",
+                  "dateTime" : "%s"
+                } ]
+                """.formatted(ZonedDateTime.now());
+        try (var daemon = new FlakyRunSummaryDaemon(args)) {
+            daemon.start();
+            var baseUri = daemon.getUri().toString();
+            var client = HttpClient.newHttpClient();
+
+            var reportRequest = HttpRequest
+                    .newBuilder(URI.create(baseUri + "/reports?flaky-report-ci-job-name=daemon-job"
+                            + "&flaky-report-ci-build-number=42"))
+                    .POST(HttpRequest.BodyPublishers.ofString(report)).build();
+            var ingested = client.send(reportRequest, HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, ingested.statusCode());
+            assertTrue(ingested.body().contains("\"ingestedFlakes\":1"), ingested.body());
+
+            // CI retry sends the same report again
+            var retried = client.send(reportRequest, HttpResponse.BodyHandlers.ofString());
+            assertTrue(retried.body().contains("\"alreadyIngested\":true"), retried.body());
+
+            var stats = client.send(HttpRequest.newBuilder(URI.create(baseUri + "/stats")).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertTrue(stats.body().contains("\"flakes\":1"), stats.body());
+            assertTrue(stats.body().contains("\"ingestedReports\":1"), stats.body());
+
+            var summary = client.send(HttpRequest.newBuilder(URI.create(baseUri + "/summary")).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertTrue(summary.body().contains("io.quarkus.qe.DaemonTest.testFlaky"), summary.body());
+            assertTrue(summary.body().contains("daemon-job"), summary.body());
+            assertFalse(Files.exists(summaryPath));
+        }
+
+        // closing the daemon writes the final snapshot
+        var snapshot = Files.readString(summaryPath);
+        assertTrue(snapshot.contains("io.quarkus.qe.DaemonTest.testFlaky"), snapshot);
+        assertTrue(snapshot.contains("42"), snapshot);
+
+        // ingested reports are loaded with the previous summary, so the restarted daemon recognizes the CI retry
+        try (var daemon = new FlakyRunSummaryDaemon(args)) {
+            daemon.start();
+            var retried = HttpClient.newHttpClient().send(
+                    HttpRequest
+                            .newBuilder(URI.create(daemon.getUri() + "/reports?flaky-report-ci-job-name=daemon-job"
+                                    + "&flaky-report-ci-build-number=42"))
+                            .POST(HttpRequest.BodyPublishers.ofString(report)).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertTrue(retried.body().contains("\"alreadyIngested\":true"), retried.body());
+        }
+        snapshot = Files.readString(summaryPath);
+        assertTrue(snapshot.contains("ingestedReports"), snapshot);
+    }
+
+    @Test
+    public void testInvalidRequestsAndFailedSnapshot() throws IOException, InterruptedException {
+        Files.createDirectories(TARGET_DAEMON_DIR);
+        // directory does not exist, so the snapshot cannot be written
+        var summaryPath = TARGET_DAEMON_DIR.resolve("missing-dir").resolve("flaky-summary-report.json");
+        var args = createCommandArgs(PORT, "0", SNAPSHOT_INTERVAL_SECONDS, "0", MAX_REPORT_SIZE_KB, "1",
+                "previous-summary-report-path", summaryPath.toString(), "new-summary-report-path",
+                summaryPath.toString());
+        // closing the daemon that was never started must not fail
+        new FlakyRunSummaryDaemon(args).close();
+        try (var daemon = new FlakyRunSummaryDaemon(args)) {
+            daemon.start();
+            var baseUri = daemon.getUri().toString();
+            var client = HttpClient.newHttpClient();
+
+            var invalidReport = client.send(
+                    HttpRequest.newBuilder(URI.create(baseUri + "/reports"))
+                            .POST(HttpRequest.BodyPublishers.ofString("not a report")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(400, invalidReport.statusCode(), invalidReport.body());
+
+            var tooLargeReport = client.send(
+                    HttpRequest.newBuilder(URI.create(baseUri + "/reports"))
+                            .POST(HttpRequest.BodyPublishers.ofString("[" + " ".repeat(2048) + "]")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(413, tooLargeReport.statusCode(), tooLargeReport.body());
+
+            // HTTP client doesn't allow invalid Content-Length, chunked body lets the header reach the daemon
+            try (var socket = new Socket(daemon.getUri().getHost(), daemon.getUri().getPort())) {
+                socket.getOutputStream()
+                        .write(("POST /reports HTTP/1.1\r\nHost: localhost\r\n"
+                                + "Transfer-Encoding: chunked\r\nContent-Length: unknown\r\n\r\n0\r\n\r\n")
+                                        .getBytes(StandardCharsets.UTF_8));
+                var statusLine = new BufferedReader(
+                        new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8)).readLine();
+                assertEquals("HTTP/1.1 400 Bad Request", statusLine);
+            }
+
+            var report = """
+                    [ {
+                      "projectName" : "Daemon Project",
+                      "projectBaseDir" : "daemon-project",
+                      "fullTestName" : "io.quarkus.qe.DaemonTest.testFlaky",
+                      "failureMessage" : "daemon failure",
+                      "failureType" : "java.lang.AssertionError",
+                      "failureStackTrace" : "java.lang.AssertionError: daemon failure",
+                      "dateTime" : "%s"
+                    } ]
+                    """.formatted(ZonedDateTime.now());
+            var ingested = client.send(
+                    HttpRequest.newBuilder(URI.create(baseUri + "/reports"))
+                            .POST(HttpRequest.BodyPublishers.ofString(report)).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, ingested.statusCode(), ingested.body());
+
+            var snapshot = client.send(HttpRequest.newBuilder(URI.create(baseUri + "/snapshot"))
+                    .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(500, snapshot.statusCode(), snapshot.body());
+        }
+        assertFalse(Files.exists(summaryPath));
+    }
+}
@@ -0,0 +1,157 @@
+package io.quarkus.qe.reporter.flakyrun;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummary;
+import io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummary.FlakyRunFlake;
+import io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummary.FlakyRunProjectSummary;
+import io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummary.FlakyRunTestSummary;
+import io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryFederation;
+import io.quarkus.qe.reporter.flakyrun.summary.FlakySummaryIndex;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static io.quarkus.qe.reporter.flakyrun.FlakyReporterUtils.createCommandArgs;
+import static io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryFederation.MAX_TESTS_IN_MEMORY;
+import static io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryFederation.SUMMARY_REPORT_PATHS;
+import static io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryReporter.DAY_RETENTION;
+import static io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryReporter.MAX_FLAKES_PER_TEST;
+import static io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryReporter.NEW_SUMMARY_REPORT_PATH;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class FlakyRunSummaryFederationTest {
+
+    private static final Path TARGET_FEDERATION_DIR = Path.of("target", "flaky-summary-federation");
+    private static final String SUMMARY = """
+            {
+              "flakyProjects" : [ %s ]
+            }
+            """;
+    private static final String PROJECT = """
+            {
+              "projectName" : "%s",
+              "projectBaseDir" : "%s",
+              "flakeTests" : [ {
+                "fullTestName" : "%s",
+                "flakes" : [ %s ]
+              } ]
+            }
+            """;
+    private static final String FLAKE = """
+            {
+              "failureMessage" : "failure",
+              "failureType" : "java.lang.AssertionError",
+              "failureStackTrace" : "%s",
+              "dateTime" : "%s",
+              "ciJobName" : "job",
+              "ciBuildNumber" : "1"
+            }
+            """;
+
+    @Test
+    public void testSummariesAreMerged() throws IOException {
+        Files.createDirectories(TARGET_FEDERATION_DIR);
+        var now = ZonedDateTime.now();
+        var mainSummary = TARGET_FEDERATION_DIR.resolve("main-summary.json");
+        Files.writeString(mainSummary,
+                SUMMARY.formatted(String.join(",",
+                        project("Project A", "a", "a.ATest.testFlaky", flake("trace", now.minusDays(1)),
+                                flake("trace", now.minusDays(3))),
+                        project("Project B", "b", "b.BTest.testFlaky", flake("trace", now.minusDays(40))))));
+        // projects are not sorted, so this summary is split into sorted runs, each run with one test
+        var branchSummary = TARGET_FEDERATION_DIR.resolve("branch-summary.json");
+        Files.writeString(branchSummary,
+                SUMMARY.formatted(String.join(",",
+                        project("Project Z", "z", "z.ZTest.testFlaky", flake("trace", now.minusDays(1))),
+                        project("Project A", "a", "a.ATest.testFlaky", flake("trace", now.minusDays(1)),
+                                flake("other trace", now.minusDays(2))))));
+        var mergedSummary = TARGET_FEDERATION_DIR.resolve("flaky-summary-report.json");
+
+        new FlakyRunSummaryFederation(createCommandArgs(SUMMARY_REPORT_PATHS, mainSummary + "," + branchSummary,
+                NEW_SUMMARY_REPORT_PATH, mergedSummary.toString(), DAY_RETENTION, "30", MAX_FLAKES_PER_TEST, "2",
+                MAX_TESTS_IN_MEMORY, "1")).merge();
+
+        var summary = new ObjectMapper().readValue(mergedSummary.toFile(), FlakyRunSummary.class);
+        // 'Project B' has only flakes older than day retention
+        assertEquals(2, summary.flakyProjects().size());
+        var projectA = summary.flakyProjects().get(0);
+        assertEquals("Project A", projectA.projectName());
+        var flakes = projectA.flakeTests().get(0).flakes();
+        // occurrences of the same failure are aggregated and the duplicate occurrence is only counted once
+        assertEquals(2, flakes.size());
+        assertEquals(now.minusDays(1).toString(), flakes.get(0).dateTime());
+        assertEquals(2, flakes.get(0).occurrenceCount());
+        assertEquals(now.minusDays(3).toString(), flakes.get(0).firstOccurrenceDateTime());
+        assertEquals("other trace", flakes.get(1).failureStackTrace());
+        assertEquals(1, flakes.get(1).occurrenceCount());
+        assertEquals("Project Z", summary.flakyProjects().get(1).projectName());
+
+        var index = FlakySummaryIndex.read(TARGET_FEDERATION_DIR.resolve(FlakySummaryIndex.FLAKY_SUMMARY_INDEX));
+        assertEquals(3, index.getFlakeCount("a.ATest.testFlaky"));
+        assertEquals(0, index.getFlakeCount("b.BTest.testFlaky"));
+    }
+
+    @Test
+    public void testUntrackedOccurrencesAreNotCountedTwice() throws IOException {
+        Files.createDirectories(TARGET_FEDERATION_DIR);
+        var now = ZonedDateTime.now();
+        // only the latest 20 occurrences are tracked, the rest of them can't be told apart
+        var flake = aggregatedFlake(now.minusHours(1), 30);
+        var mainSummary = writeSummary("main-copy-summary.json", flake);
+        var copiedSummary = writeSummary("copied-summary.json", flake);
+        var newerSummary = writeSummary("newer-summary.json", aggregatedFlake(now.minusMinutes(1), 5).aggregate(flake));
+        var olderSummary = writeSummary("older-summary.json", aggregatedFlake(now.minusDays(5), 30));
+
+        // untracked occurrences of copies are the same occurrences
+        assertEquals(30, mergeOccurrences(mainSummary, copiedSummary));
+        // summary with 5 more occurrences since the copy was made
+        assertEquals(35, occurrences(newerSummary));
+        assertEquals(35, mergeOccurrences(mainSummary, newerSummary));
+        // untracked occurrences that happened at different times are summed
+        assertEquals(60, mergeOccurrences(mainSummary, olderSummary));
+    }
+
+    private static String project(String projectName, String projectBaseDir, String fullTestName, String... flakes) {
+        return PROJECT.formatted(projectName, projectBaseDir, fullTestName, String.join(",", flakes));
+    }
+
+    private static String flake(String failureStackTrace, ZonedDateTime dateTime) {
+        return FLAKE.formatted(failureStackTrace, dateTime);
+    }
+
+    private static FlakyRunFlake aggregatedFlake(ZonedDateTime latestDateTime, int occurrences) {
+        return IntStream.range(0, occurrences)
+                .mapToObj(i -> new FlakyRunFlake("failure", "java.lang.AssertionError", "trace",
+                        latestDateTime.minusHours(i).toString(), "job", String.valueOf(i)))
+                .reduce(FlakyRunFlake::aggregate).orElseThrow();
+    }
+
+    private static Path writeSummary(String fileName, FlakyRunFlake flake) throws IOException {
+        var summaryPath = TARGET_FEDERATION_DIR.resolve(fileName);
+        var test = new FlakyRunTestSummary("a.ATest.testFlaky", List.of(flake));
+        new ObjectMapper().writeValue(summaryPath.toFile(),
+                new FlakyRunSummary(List.of(new FlakyRunProjectSummary("Project A", "a", List.of(test)))));
+        return summaryPath;
+    }
+
+    private static int mergeOccurrences(Path... summaryPaths) throws IOException {
+        var mergedSummary = TARGET_FEDERATION_DIR.resolve("merged-occurrences-summary.json");
+        new FlakyRunSummaryFederation(createCommandArgs(SUMMARY_REPORT_PATHS,
+                Stream.of(summaryPaths).map(Path::toString).collect(Collectors.joining(",")), NEW_SUMMARY_REPORT_PATH,
+                mergedSummary.toString(), DAY_RETENTION, "30")).merge();
+        return occurrences(mergedSummary);
+    }
+
+    private static int occurrences(Path summaryPath) throws IOException {
+        var summary = new ObjectMapper().readValue(summaryPath.toFile(), FlakyRunSummary.class);
+        return summary.flakyProjects().get(0).flakeTests().get(0).flakes().stream()
+                .mapToInt(FlakyRunFlake::occurrenceCount).sum();
+    }
+}
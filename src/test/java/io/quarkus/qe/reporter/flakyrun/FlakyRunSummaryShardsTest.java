@@ -0,0 +1,123 @@
+package io.quarkus.qe.reporter.flakyrun;
+
+import io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummary;
+import io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummary.FlakyRunFlake;
+import io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummary.FlakyRunProjectSummary;
+import io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummary.FlakyRunTestSummary;
+import io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryReporter;
+import io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryShardConverter;
+import io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryShards;
+import io.quarkus.qe.reporter.flakyrun.summary.FlakySummaryIndex;
+import org.codehaus.plexus.util.FileUtils;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static io.quarkus.qe.reporter.flakyrun.FlakyReporterUtils.createCommandArgs;
+import static io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryReporter.DAY_RETENTION;
+import static io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryReporter.SUMMARY_SHARDS_DIR;
+import static io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryShardConverter.CONVERSION;
+import static io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryReporter.SUMMARY_REPORT_PATH;
+import static io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryShardConverter.TO_SHARDS;
+import static io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryShardConverter.TO_SINGLE_FILE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FlakyRunSummaryShardsTest {
+
+    private static final Path TARGET_SHARDS_TEST_DIR = Path.of("target", "flaky-summary-shards");
+
+    @Test
+    public void testOnlyTouchedShardIsRewritten() throws IOException {
+        FileUtils.deleteDirectory(TARGET_SHARDS_TEST_DIR.toFile());
+        var shardsDir = TARGET_SHARDS_TEST_DIR.resolve("shards");
+        var singleFileSummary = TARGET_SHARDS_TEST_DIR.resolve("flaky-summary-report.json");
+        Files.createDirectories(TARGET_SHARDS_TEST_DIR);
+        // old summary contains 'Quarkus QE TS: Quarkus Picocli' project among others
+        Files.copy(Path.of("src/test/resources/flaky-summary-report.json"), singleFileSummary);
+        new FlakyRunSummaryShardConverter(createCommandArgs(SUMMARY_REPORT_PATH, singleFileSummary.toString(),
+                SUMMARY_SHARDS_DIR, shardsDir.toString(), CONVERSION, TO_SHARDS)).convert();
+
+        var shards = new FlakyRunSummaryShards(shardsDir);
+        var manifest = shards.readManifest();
+        assertTrue(manifest.shards().size() > 1, "Expected multiple shards, got " + manifest.shards());
+        var picocliShard = shardsDir
+                .resolve(FlakyRunSummaryShards.toShardFile("Quarkus QE TS: Quarkus Picocli", "quarkus-picocli"));
+        assertTrue(Files.exists(picocliShard), "Shard " + picocliShard + " does not exist");
+        var untouchedShardModified = Files.getLastModifiedTime(picocliShard);
+
+        var newFlakyReport = TARGET_SHARDS_TEST_DIR.resolve("flaky-run-report.json");
+        Files.writeString(newFlakyReport, """
+                [ {
+                  "projectName" : "Sharded Project",
+                  "projectBaseDir" : "sharded-project",
+                  "fullTestName" : "io.quarkus.qe.ShardedTest.testFlaky",
+                  "failureMessage" : "sharded failure",
+                  "failureType" : "java.lang.AssertionError",
+                  "failureStackTrace" : "java.lang.AssertionError: sharded failure",
+                  "dateTime" : "%s"
+                } ]
+                """.formatted(ZonedDateTime.now()));
+        new FlakyRunSummaryReporter(createCommandArgs("new-flaky-report-path", newFlakyReport.toString(),
+                SUMMARY_SHARDS_DIR, shardsDir.toString(), DAY_RETENTION, Integer.MAX_VALUE + "")).createReport();
+
+        assertEquals(manifest.shards().size() + 1, shards.readManifest().shards().size());
+        assertEquals(untouchedShardModified, Files.getLastModifiedTime(picocliShard));
+        var newShard = shards.readShard(FlakyRunSummaryShards.toShardFile("Sharded Project", "sharded-project"));
+        assertEquals("io.quarkus.qe.ShardedTest.testFlaky", newShard.flakeTests().get(0).fullTestName());
+
+        new FlakyRunSummaryShardConverter(createCommandArgs(SUMMARY_REPORT_PATH, singleFileSummary.toString(),
+                SUMMARY_SHARDS_DIR, shardsDir.toString(), CONVERSION, TO_SINGLE_FILE)).convert();
+        var summary = Files.readString(singleFileSummary);
+        assertTrue(summary.contains("PicocliDevIT.verifyGreetingCommandOutputsExpectedMessage"), summary);
+        assertTrue(summary.contains("io.quarkus.qe.ShardedTest.testFlaky"), summary);
+
+        // ingested reports are kept by both conversions
+        FileUtils.deleteDirectory(shardsDir.toFile());
+        new FlakyRunSummaryShardConverter(createCommandArgs(SUMMARY_REPORT_PATH, singleFileSummary.toString(),
+                SUMMARY_SHARDS_DIR, shardsDir.toString(), CONVERSION, TO_SHARDS)).convert();
+        assertEquals(1, shards.readManifest().metadata().ingestedReports().size());
+    }
+
+    @Test
+    public void testDayRetentionIsAppliedToUntouchedShards() throws IOException {
+        var shardsDir = TARGET_SHARDS_TEST_DIR.resolve("retention-shards");
+        FileUtils.deleteDirectory(shardsDir.toFile());
+        var shards = new FlakyRunSummaryShards(shardsDir);
+        var expiredFlake = new FlakyRunFlake("expired failure", "java.lang.AssertionError",
+                "java.lang.AssertionError: expired failure", ZonedDateTime.now().minusDays(10).toString(), "job", "1");
+        shards.writeSummary(new FlakyRunSummary(List.of(new FlakyRunProjectSummary("Expired Project", "expired-project",
+                List.of(new FlakyRunTestSummary("io.quarkus.qe.ExpiredTest.testFlaky", List.of(expiredFlake)))))));
+        var expiredShard = shardsDir.resolve(FlakyRunSummaryShards.toShardFile("Expired Project", "expired-project"));
+        assertTrue(Files.exists(expiredShard), "Shard " + expiredShard + " does not exist");
+
+        var newFlakyReport = TARGET_SHARDS_TEST_DIR.resolve("retention-flaky-run-report.json");
+        Files.writeString(newFlakyReport, """
+                [ {
+                  "projectName" : "Sharded Project",
+                  "projectBaseDir" : "sharded-project",
+                  "fullTestName" : "io.quarkus.qe.ShardedTest.testFlaky",
+                  "failureMessage" : "sharded failure",
+                  "failureType" : "java.lang.AssertionError",
+                  "failureStackTrace" : "java.lang.AssertionError: sharded failure",
+                  "dateTime" : "%s"
+                } ]
+                """.formatted(ZonedDateTime.now()));
+        new FlakyRunSummaryReporter(createCommandArgs("new-flaky-report-path", newFlakyReport.toString(),
+                SUMMARY_SHARDS_DIR, shardsDir.toString(), DAY_RETENTION, "5")).createReport();
+
+        // expired project is not touched by the new report, but its flakes must not stay in the summary
+        assertTrue(shards.readShard(expiredShard.getFileName().toString()).flakeTests().get(0).flakes().isEmpty());
+        var manifest = shards.readManifest();
+        assertEquals(2, manifest.shards().size(), manifest.toString());
+        assertNotNull(manifest.shards().get(1).oldestDateTime(), manifest.toString());
+        var index = FlakySummaryIndex.read(shardsDir.resolve(FlakySummaryIndex.FLAKY_SUMMARY_INDEX));
+        assertEquals(0, index.getFlakeCount("io.quarkus.qe.ExpiredTest.testFlaky"));
+        assertEquals(1, index.getFlakeCount("io.quarkus.qe.ShardedTest.testFlaky"));
+    }
+}
@@ -0,0 +1,56 @@
+package io.quarkus.qe.reporter.flakyrun;
+
+import io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummary;
+import io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummary.FlakyRunFlake;
+import io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummary.FlakyRunProjectSummary;
+import io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummary.FlakyRunTestSummary;
+import io.quarkus.qe.reporter.flakyrun.summary.FlakySummaryIndex;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class FlakySummaryIndexTest {
+
+    private static final Path TARGET_INDEX_DIR = Path.of("target", "flaky-summary-index");
+
+    @Test
+    public void testIndexLookup() throws IOException {
+        var projectA = project("project-a", test("a.FirstTest.test", 3), test("a.SecondTest.test", 1));
+        var projectB = project("project-b", test("a.FirstTest.test", 2));
+        var index = FlakySummaryIndex.of(new FlakyRunSummary(List.of(projectA, projectB)));
+        assertEquals(5, index.getFlakeCount("a.FirstTest.test"));
+        assertEquals(1, index.getFlakeCount("a.SecondTest.test"));
+        assertEquals(0, index.getFlakeCount("a.UnknownTest.test"));
+
+        Files.createDirectories(TARGET_INDEX_DIR);
+        var indexPath = TARGET_INDEX_DIR.resolve(FlakySummaryIndex.FLAKY_SUMMARY_INDEX);
+        index.write(indexPath);
+        var readIndex = FlakySummaryIndex.read(indexPath);
+        assertEquals(2, readIndex.size());
+        assertEquals(5, readIndex.getFlakeCount("a.FirstTest.test"));
+
+        // replace project B so that the index reflects the current state without reading project A
+        var newProjectB = project("project-b", test("a.FirstTest.test", 4), test("b.ThirdTest.test", 1));
+        var updatedIndex = readIndex.update(List.of(projectB), List.of(newProjectB));
+        assertEquals(7, updatedIndex.getFlakeCount("a.FirstTest.test"));
+        assertEquals(1, updatedIndex.getFlakeCount("a.SecondTest.test"));
+        assertEquals(1, updatedIndex.getFlakeCount("b.ThirdTest.test"));
+    }
+
+    private static FlakyRunProjectSummary project(String name, FlakyRunTestSummary... tests) {
+        return new FlakyRunProjectSummary(name, name, List.of(tests));
+    }
+
+    private static FlakyRunTestSummary test(String fullTestName, int flakes) {
+        var now = ZonedDateTime.now().toString();
+        var flake = new FlakyRunFlake("message", "type", "trace", now, "job", "1");
+        return new FlakyRunTestSummary(fullTestName, Collections.nCopies(flakes, flake));
+    }
+}
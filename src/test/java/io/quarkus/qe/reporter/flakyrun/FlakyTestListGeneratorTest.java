@@ -0,0 +1,70 @@
+package io.quarkus.qe.reporter.flakyrun;
+
+import io.quarkus.qe.reporter.flakyrun.summary.FlakyTestListGenerator;
+import org.codehaus.plexus.util.FileUtils;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static io.quarkus.qe.reporter.flakyrun.FlakyReporterUtils.createCommandArgs;
+import static io.quarkus.qe.reporter.flakyrun.summary.FlakyRunSummaryReporter.SUMMARY_REPORT_PATH;
+import static io.quarkus.qe.reporter.flakyrun.summary.FlakyTestListGenerator.DAY_WINDOW;
+import static io.quarkus.qe.reporter.flakyrun.summary.FlakyTestListGenerator.FLAKY_TESTS_FILE;
+import static io.quarkus.qe.reporter.flakyrun.summary.FlakyTestListGenerator.MIN_FLAKES;
+import static io.quarkus.qe.reporter.flakyrun.summary.FlakyTestListGenerator.TEST_LISTS_DIR;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+public class FlakyTestListGeneratorTest {
+
+    private static final Path TARGET_TEST_LISTS_DIR = Path.of("target", "flaky-test-lists");
+
+    @Test
+    public void testFrequentlyFlakyTestsAreListed() throws IOException {
+        FileUtils.deleteDirectory(TARGET_TEST_LISTS_DIR.toFile());
+        Files.createDirectories(TARGET_TEST_LISTS_DIR);
+        var now = ZonedDateTime.now();
+        var summaryPath = TARGET_TEST_LISTS_DIR.resolve("flaky-summary-report.json");
+        Files.writeString(summaryPath, """
+                {
+                  "flakyProjects" : [ {
+                    "projectName" : "HTTP",
+                    "projectBaseDir" : "http/http-minimum",
+                    "flakeTests" : [ {
+                      "fullTestName" : "io.quarkus.ts.http.HttpIT.testGreeting(String)[1]",
+                      "flakes" : [ { "dateTime" : "%1$s" }, { "dateTime" : "%2$s" } ]
+                    }, {
+                      "fullTestName" : "io.quarkus.ts.http.HttpIT.Greeting with v1.2, user [admin]",
+                      "flakes" : [ { "dateTime" : "%1$s" }, { "dateTime" : "%2$s" } ]
+                    }, {
+                      "fullTestName" : "io.quarkus.ts.http.HttpIT.testRarelyFlaky",
+                      "flakes" : [ { "dateTime" : "%1$s" }, { "dateTime" : "%3$s" } ]
+                    } ]
+                  }, {
+                    "projectName" : "Picocli",
+                    "projectBaseDir" : "quarkus-picocli",
+                    "flakeTests" : [ {
+                      "fullTestName" : "PicocliDevIT.verifyGreeting",
+                      "flakes" : [ { "dateTime" : "%1$s" } ]
+                    } ]
+                  } ]
+                }
+                """.formatted(now.minusDays(1), now.minusDays(2), now.minusDays(20)));
+        var testListsDir = TARGET_TEST_LISTS_DIR.resolve("lists");
+
+        var listedTests = new FlakyTestListGenerator(createCommandArgs(SUMMARY_REPORT_PATH, summaryPath.toString(),
+                TEST_LISTS_DIR, testListsDir.toString(), MIN_FLAKES, "2", DAY_WINDOW, "14")).generate();
+
+        assertEquals(2, listedTests);
+        var httpTests = Files.readAllLines(testListsDir.resolve("http/http-minimum").resolve(FLAKY_TESTS_FILE));
+        // display names are not truncated, characters that are not allowed in method names are wildcards
+        assertEquals(
+                List.of("io.quarkus.ts.http.HttpIT#Greeting?with?v1?2??user", "io.quarkus.ts.http.HttpIT#testGreeting"),
+                httpTests.stream().filter(l -> !l.startsWith("#")).toList());
+        assertFalse(Files.exists(testListsDir.resolve("quarkus-picocli").resolve(FLAKY_TESTS_FILE)));
+    }
+}
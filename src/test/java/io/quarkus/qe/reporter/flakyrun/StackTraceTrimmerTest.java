@@ -0,0 +1,78 @@
+package io.quarkus.qe.reporter.flakyrun;
+
+import io.quarkus.qe.reporter.flakyrun.reporter.StackTraceTrimmer;
+import org.junit.jupiter.api.Test;
+
+import java.util.Properties;
+
+import static io.quarkus.qe.reporter.flakyrun.reporter.StackTraceTrimmer.MAX_FAILURE_MESSAGE_LENGTH;
+import static io.quarkus.qe.reporter.flakyrun.reporter.StackTraceTrimmer.MAX_STACK_TRACE_FRAMES;
+import static io.quarkus.qe.reporter.flakyrun.reporter.StackTraceTrimmer.TRIM_STACK_TRACE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class StackTraceTrimmerTest {
+
+    private static final String STACK_TRACE = """
+            org.opentest4j.AssertionFailedError: failing to test flakiness reporting
+            at least one line of the message looks like a frame
+            \tat org.junit.jupiter.api.AssertionUtils.fail(AssertionUtils.java:38)
+            \tat org.junit.jupiter.api.Assertions.fail(Assertions.java:138)
+            \tat io.quarkus.qe.reporter.flakyrun.FlakyTest.testFlaky(FlakyTest.java:18)
+            \tat java.base/jdk.internal.reflect.NativeMethodAccessorImpl.invoke0(Native Method)
+            \tat java.base/java.lang.reflect.Method.invoke(Method.java:569)
+            \tat io.quarkus.qe.reporter.flakyrun.FlakyTest.helper(FlakyTest.java:30)
+            \tat io.quarkus.qe.reporter.flakyrun.FlakyTest.helper2(FlakyTest.java:40)
+            \tat io.quarkus.qe.reporter.flakyrun.FlakyTest.helper3(FlakyTest.java:50)
+            Caused by: java.lang.IllegalStateException: root cause with a very long message
+            \tat io.quarkus.qe.reporter.flakyrun.FlakyTest.cause(FlakyTest.java:60)
+            \tat io.quarkus.qe.reporter.flakyrun.FlakyTest.cause2(FlakyTest.java:70)
+            \tat io.quarkus.qe.reporter.flakyrun.FlakyTest.cause3(FlakyTest.java:80)
+            \t... 5 more
+            """;
+
+    @Test
+    public void testStackTraceTrimming() {
+        var properties = new Properties();
+        properties.setProperty(MAX_STACK_TRACE_FRAMES, "2");
+        properties.setProperty(MAX_FAILURE_MESSAGE_LENGTH, "150");
+        var trimmer = StackTraceTrimmer.of(properties);
+        // message lines are limited together, the first cause message is shorter than the max length
+        assertEquals("""
+                org.opentest4j.AssertionFailedError: failing to test flakiness reporting
+                at least one line of the message looks like a frame
+                \t... 2 framework frames omitted
+                \tat io.quarkus.qe.reporter.flakyrun.FlakyTest.testFlaky(FlakyTest.java:18)
+                \t... 2 framework frames omitted
+                \tat io.quarkus.qe.reporter.flakyrun.FlakyTest.helper(FlakyTest.java:30)
+                \t... 2 frames trimmed
+                Caused by: java.lang.IllegalStateException: root cause with a very long message
+                \tat io.quarkus.qe.reporter.flakyrun.FlakyTest.cause(FlakyTest.java:60)
+                \tat io.quarkus.qe.reporter.flakyrun.FlakyTest.cause2(FlakyTest.java:70)
+                \t... 1 frame trimmed
+                \t... 5 more""", trimmer.trimStackTrace(STACK_TRACE));
+        properties.setProperty(MAX_FAILURE_MESSAGE_LENGTH, "75");
+        trimmer = StackTraceTrimmer.of(properties);
+        assertEquals("Caused by: java.lang.IllegalStateException: root cause with a very long mes...", trimmer
+                .trimStackTrace(STACK_TRACE).lines().filter(l -> l.startsWith("Caused by")).findFirst().orElseThrow());
+        assertEquals("a".repeat(75) + "...", trimmer.trimMessage("a".repeat(80)));
+    }
+
+    @Test
+    public void testInvalidNumberPropertiesFallBackToDefaults() {
+        var properties = new Properties();
+        properties.setProperty(MAX_STACK_TRACE_FRAMES, "ten");
+        properties.setProperty(MAX_FAILURE_MESSAGE_LENGTH, "");
+        var trimmer = StackTraceTrimmer.of(properties);
+        // default max message length is 2000
+        assertEquals("a".repeat(2000) + "...", trimmer.trimMessage("a".repeat(2001)));
+        // default max frames is 50, so only the two groups of framework frames are collapsed
+        assertEquals(STACK_TRACE.lines().count() - 2, trimmer.trimStackTrace(STACK_TRACE).lines().count());
+    }
+
+    @Test
+    public void testTrimmingDisabled() {
+        var properties = new Properties();
+        properties.setProperty(TRIM_STACK_TRACE, "false");
+        assertEquals(STACK_TRACE, StackTraceTrimmer.of(properties).trimStackTrace(STACK_TRACE));
+    }
+}